@@ -0,0 +1,61 @@
+package com.camal.businessmanagement.benchmark;
+
+import com.camal.businessmanagement.BusinessManagementApplication;
+import com.camal.businessmanagement.entity.Product;
+import com.camal.businessmanagement.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application context on the {@code jmh} profile (in-memory H2), started once per fork and
+ * seeded with {@link #ROWS} products.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    static final int ROWS = 10_000;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(BusinessManagementApplication.class)
+                .run(arguments());
+        ProductRepository repository = context.getBean(ProductRepository.class);
+        List<Product> chunk = new ArrayList<>();
+        for (int i = 1; i <= ROWS; i++) {
+            Product product = ProductMappingBenchmark.product(i);
+            product.setId(null);
+            product.setVersion(null);
+            chunk.add(product);
+            if (chunk.size() == 500) {
+                repository.saveAll(chunk);
+                chunk.clear();
+            }
+        }
+    }
+
+    /**
+     * Command line of the application; subclasses add properties to compare configurations.
+     */
+    protected String[] arguments() {
+        return new String[] {"--spring.profiles.active=jmh"};
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
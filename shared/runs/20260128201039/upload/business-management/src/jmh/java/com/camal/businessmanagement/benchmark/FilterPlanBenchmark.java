@@ -0,0 +1,102 @@
+package com.camal.businessmanagement.benchmark;
+
+import com.camal.businessmanagement.entity.Product;
+import com.camal.businessmanagement.filter.FilterCompiler;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Legacy lambda-chain specifications against compiled filter plans, with Hibernate's criteria
+ * plan cache on and off.
+ * <p>
+ * {@code predicate} builds the criteria tree only. {@code query} also lets Hibernate translate it
+ * and runs it for one page, which is where a cached plan pays off. Values change on every call,
+ * as they do between requests, so only the query shape repeats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FilterPlanBenchmark {
+
+    @Param({"legacy", "compiled"})
+    String path;
+
+    private FilterCompiler filterCompiler;
+    private EntityManager entityManager;
+
+    @Setup
+    public void setUp(PlanCacheState application) {
+        filterCompiler = application.bean(FilterCompiler.class);
+        entityManager = application.bean(EntityManagerFactory.class).createEntityManager();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+    }
+
+    @Benchmark
+    public Object predicate() {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = cb.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+        return specification(params()).toPredicate(root, query, cb);
+    }
+
+    @Benchmark
+    public List<Product> query() {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = cb.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+        query.where(specification(params()).toPredicate(root, query, cb));
+        List<Product> page = entityManager.createQuery(query).setMaxResults(20).getResultList();
+        entityManager.clear();
+        return page;
+    }
+
+    private Specification<Product> specification(Map<String, String> params) {
+        return path.equals("legacy")
+                ? LegacyProductSpecifications.fromParams(params)
+                : filterCompiler.specification(Product.class, params);
+    }
+
+    private static Map<String, String> params() {
+        int price = ThreadLocalRandom.current().nextInt(1, 5000);
+        return Map.of(
+                "productName", "product " + price % 97,
+                "minSellPrice", String.valueOf(price),
+                "maxSellPrice", String.valueOf(price + 500));
+    }
+
+    /** Application with the criteria plan cache switched on or off. */
+    @State(Scope.Benchmark)
+    public static class PlanCacheState extends ApplicationState {
+
+        @Param({"true", "false"})
+        boolean planCache;
+
+        @Override
+        protected String[] arguments() {
+            return new String[] {"--spring.profiles.active=jmh",
+                    "--spring.jpa.properties.hibernate.criteria.plan_cache_enabled=" + planCache};
+        }
+    }
+}
@@ -1,4 +1,4 @@
-package com.camal.businessmanagement.spec;
+package com.camal.businessmanagement.benchmark;
 
 import com.camal.businessmanagement.entity.Product;
 import org.springframework.data.jpa.domain.Specification;
@@ -7,11 +7,12 @@ import java.math.BigDecimal;
 import java.util.Map;
 
 /**
- * JPA Specifications for dynamic Product queries.
+ * The Product filters as they were built before {@code FilterCompiler}: a fresh chain of lambda
+ * specifications per call. Kept as the baseline of {@link FilterPlanBenchmark}.
  */
-public final class ProductSpecifications {
+final class LegacyProductSpecifications {
 
-    private ProductSpecifications() {
+    private LegacyProductSpecifications() {
         // Utility class
     }
 
@@ -0,0 +1,91 @@
+package com.camal.businessmanagement.benchmark;
+
+import com.camal.businessmanagement.common.ApiEnvelope;
+import com.camal.businessmanagement.common.PageResponse;
+import com.camal.businessmanagement.dto.product.product.ProductResponseDto;
+import com.camal.businessmanagement.entity.Product;
+import com.camal.businessmanagement.mapper.ProductMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory part of a product list response: entity to DTO mapping, page wrapping and JSON
+ * serialisation of the envelope returned by {@code GET /api/v1/products}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductMappingBenchmark {
+
+    @Param({"20", "200"})
+    int pageSize;
+
+    private final ProductMapper mapper = Mappers.getMapper(ProductMapper.class);
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private Product product;
+    private Page<ProductResponseDto> page;
+    private ApiEnvelope<PageResponse<ProductResponseDto>> envelope;
+
+    @Setup
+    public void setUp() {
+        product = product(1);
+        List<ProductResponseDto> items = IntStream.rangeClosed(1, pageSize)
+                .mapToObj(i -> mapper.toDto(product(i)))
+                .toList();
+        page = new PageImpl<>(items, PageRequest.of(0, pageSize), 10_000);
+        envelope = ApiEnvelope.ok("ok", PageResponse.from(page));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public ProductResponseDto toDto() {
+        return mapper.toDto(product);
+    }
+
+    @Benchmark
+    public PageResponse<ProductResponseDto> pageResponse() {
+        return PageResponse.from(page);
+    }
+
+    @Benchmark
+    public byte[] serializeEnvelope() {
+        return objectMapper.writeValueAsBytes(envelope);
+    }
+
+    static Product product(int i) {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z").plusSeconds(i);
+        return Product.builder()
+                .id((long) i)
+                .version(0L)
+                .url("https://example.com/products/" + i)
+                .productName("Product " + i)
+                .boughtPrice(new BigDecimal("10.5000").add(BigDecimal.valueOf(i)))
+                .sellPrice(new BigDecimal("14.9900").add(BigDecimal.valueOf(i)))
+                .description("Description of product " + i)
+                .createdAt(now)
+                .updatedAt(now)
+                .createdBy("system")
+                .updatedBy("system")
+                .deleted(false)
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.camal.businessmanagement.benchmark;
+
+import com.camal.businessmanagement.common.CountMode;
+import com.camal.businessmanagement.dto.product.product.ProductResponseDto;
+import com.camal.businessmanagement.entity.Product;
+import com.camal.businessmanagement.filter.FilterCompiler;
+import com.camal.businessmanagement.service.ProductService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product list query path: building the filter specification into a criteria predicate, and
+ * the full {@link ProductService#list} call against the seeded embedded database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductQueryBenchmark {
+
+    /** Query string of the list request, without paging parameters. */
+    @Param({"", "productName=product 12", "productName=product&minSellPrice=100&maxSellPrice=5000"})
+    String filter;
+
+    private final Pageable pageable = PageRequest.of(0, 20, Sort.by("id"));
+
+    private Map<String, String> params;
+    private ProductService service;
+    private FilterCompiler filterCompiler;
+    private EntityManager entityManager;
+
+    @Setup
+    public void setUp(ApplicationState application) {
+        params = new LinkedHashMap<>();
+        for (String pair : filter.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        service = application.bean(ProductService.class);
+        filterCompiler = application.bean(FilterCompiler.class);
+        entityManager = application.bean(EntityManagerFactory.class).createEntityManager();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+    }
+
+    @Benchmark
+    public Predicate fromParams() {
+        Specification<Product> spec = filterCompiler.specification(Product.class, params, pageable.getSort());
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = cb.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+        return spec.toPredicate(root, query, cb);
+    }
+
+    @Benchmark
+    public Slice<ProductResponseDto> list(Count count) {
+        return service.list(params, pageable, count.mode);
+    }
+
+    /** Count mode of the list call; kept apart so it does not multiply the other benchmarks. */
+    @State(Scope.Benchmark)
+    public static class Count {
+
+        @Param({"EXACT", "NONE"})
+        CountMode mode;
+    }
+}
@@ -0,0 +1,17 @@
+package com.camal.businessmanagement.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Body of a {@code POST .../_mget} call, for id lists too long for a query string.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetRequest {
+    private List<Long> ids = List.of();
+}
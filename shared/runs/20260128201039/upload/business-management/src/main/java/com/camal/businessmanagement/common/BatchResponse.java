@@ -0,0 +1,21 @@
+package com.camal.businessmanagement.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a get-by-ids call: the rows found, in request order, and the requested ids that
+ * have no live row.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponse<T> {
+    private List<T> items;
+    private List<Long> missing;
+}
@@ -0,0 +1,37 @@
+package com.camal.businessmanagement.common;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a bulk request. {@code index} is the position of the item in its
+ * {@code create}, {@code update} or {@code delete} list.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+    private Operation operation;
+    private int index;
+    private Long id;
+    private Status status;
+    private Long version;
+    private String message;
+
+    public enum Operation {
+        CREATE, UPDATE, DELETE
+    }
+
+    public enum Status {
+        CREATED, UPDATED, DELETED, INVALID, NOT_FOUND, CONFLICT, FAILED;
+
+        public boolean isSuccess() {
+            return this == CREATED || this == UPDATED || this == DELETED;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.camal.businessmanagement.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkReport {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResult> items;
+
+    public static BulkReport of(List<BulkItemResult> items) {
+        int succeeded = (int) items.stream().filter(item -> item.getStatus().isSuccess()).count();
+        return new BulkReport(items.size(), succeeded, items.size() - succeeded, items);
+    }
+}
@@ -0,0 +1,51 @@
+package com.camal.businessmanagement.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Body of a {@code POST .../bulk} call. Creates are applied first, then updates, then deletes;
+ * each list is processed in chunks, one transaction per chunk.
+ *
+ * @param <C> create DTO
+ * @param <U> update (PUT) DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRequest<C, U> {
+
+    @Builder.Default
+    private List<C> create = List.of();
+
+    @Builder.Default
+    private List<Item<U>> update = List.of();
+
+    @Builder.Default
+    private List<Long> delete = List.of();
+
+    public int size() {
+        return sizeOf(create) + sizeOf(update) + sizeOf(delete);
+    }
+
+    private static int sizeOf(List<?> list) {
+        return list == null ? 0 : list.size();
+    }
+
+    /**
+     * One update: the target id and the same body a {@code PUT /{id}} would take.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item<U> {
+        private Long id;
+        private U data;
+    }
+}
@@ -0,0 +1,31 @@
+package com.camal.businessmanagement.common;
+
+import com.camal.businessmanagement.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * How list endpoints compute totals, selected with {@code ?count=exact|estimate|none}.
+ */
+public enum CountMode {
+    /** Runs {@code count(*)} with the same filters as the page query. */
+    EXACT,
+    /**
+     * Uses planner statistics for unfiltered lists; filtered lists, and lists without statistics,
+     * fall back to {@link #NONE}, which the response reports as its {@code countMode}.
+     */
+    ESTIMATE,
+    /** No count query; the page only reports {@code hasNext}. */
+    NONE;
+
+    public static CountMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("count must be one of: exact, estimate, none");
+        }
+    }
+}
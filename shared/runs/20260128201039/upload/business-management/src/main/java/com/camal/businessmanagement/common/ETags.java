@@ -0,0 +1,100 @@
+package com.camal.businessmanagement.common;
+
+import com.camal.businessmanagement.exception.PreconditionFailedException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Entity tags derived from {@code @Version}.
+ * <p>
+ * A single resource gets the strong tag {@code "<id>-<version>"}: the version changes with every
+ * write, so the tag changes exactly when the representation does. A list page gets a weak tag over
+ * the ids and versions of its items plus the paging metadata, which changes when any item is
+ * written, added or dropped. {@code If-None-Match} is evaluated by Spring MVC for responses that
+ * carry an {@code ETag} (weak comparison); {@code If-Match} is turned into an expected version here.
+ * <p>
+ * Tomcat does not compress a response with a strong tag, so {@link SizedJsonHttpMessageConverter}
+ * {@link #weaken weakens} the tag of a response it is about to see compressed: a gzipped body is
+ * not the byte sequence the strong tag names. {@link #expectedVersion} accepts that weak form too:
+ * the write precondition is on the version, which the tag names whatever the encoding, so clients
+ * that only see gzipped responses can still write with {@code If-Match}.
+ */
+public final class ETags {
+
+    private ETags() {
+        // Utility class
+    }
+
+    public static String of(Object id, Long version) {
+        return "\"" + id + "-" + (version == null ? 0 : version) + "\"";
+    }
+
+    /**
+     * The weak form of {@code etag}; weak tags are returned as they are.
+     */
+    public static String weaken(String etag) {
+        return etag.startsWith("W/") ? etag : "W/" + etag;
+    }
+
+    /**
+     * Tag for a list page.
+     *
+     * @param items   items of the page in response order
+     * @param id      id accessor
+     * @param version version accessor
+     * @param paging  values that describe the page itself (totals, next cursor, ...)
+     */
+    public static <T> String weak(List<T> items, Function<T, ?> id, Function<T, Long> version, Object... paging) {
+        MessageDigest digest = sha256();
+        for (T item : items) {
+            digest.update((id.apply(item) + ":" + version.apply(item) + ";").getBytes(StandardCharsets.UTF_8));
+        }
+        for (Object value : paging) {
+            digest.update((value + "|").getBytes(StandardCharsets.UTF_8));
+        }
+        // 16 bytes are plenty to tell two pages apart and keep the header short
+        return "W/\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    /**
+     * Expected version carried by an {@code If-Match} header.
+     *
+     * @param ifMatch header value, may be null
+     * @param id      id of the resource being written
+     * @return the version the client last saw, or null when the header is absent or {@code *}
+     * @throws PreconditionFailedException when no tag in the header names a version of this resource
+     */
+    public static Long expectedVersion(String ifMatch, Object id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String prefix = "\"" + id + "-";
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                try {
+                    return Long.valueOf(tag.substring(prefix.length(), tag.length() - 1));
+                } catch (NumberFormatException ex) {
+                    break;
+                }
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not match the current representation");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
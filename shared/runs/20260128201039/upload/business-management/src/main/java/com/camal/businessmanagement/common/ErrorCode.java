@@ -6,5 +6,7 @@ public enum ErrorCode {
     BAD_REQUEST,
     NOT_FOUND,
     CONFLICT,
+    PRECONDITION_FAILED,
+    SERVICE_UNAVAILABLE,
     INTERNAL_ERROR
 }
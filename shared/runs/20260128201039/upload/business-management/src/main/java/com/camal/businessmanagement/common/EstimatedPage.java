@@ -0,0 +1,31 @@
+package com.camal.businessmanagement.common;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page whose total comes from planner statistics rather than {@code count(*)}.
+ * {@link #hasNext()} is taken from the page query itself, so it stays exact.
+ */
+public class EstimatedPage<T> extends PageImpl<T> {
+
+    private final boolean hasNext;
+
+    public EstimatedPage(List<T> content, Pageable pageable, long estimatedTotal, boolean hasNext) {
+        super(content, pageable, estimatedTotal);
+        this.hasNext = hasNext;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    @Override
+    public <U> EstimatedPage<U> map(Function<? super T, ? extends U> converter) {
+        return new EstimatedPage<>(getContent().stream().<U>map(converter).toList(), getPageable(), getTotalElements(), hasNext);
+    }
+}
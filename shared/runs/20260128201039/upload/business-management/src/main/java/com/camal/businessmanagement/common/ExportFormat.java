@@ -0,0 +1,34 @@
+package com.camal.businessmanagement.common;
+
+import com.camal.businessmanagement.exception.BadRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Output of the export endpoints, selected with {@code ?format=ndjson|csv}.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    /** One JSON object per line, same shape as the list items. */
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    /** Header row with the response DTO field names, then one row per item. */
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    public static ExportFormat from(String value) {
+        if (value == null || value.isBlank()) {
+            return NDJSON;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("format must be one of: ndjson, csv");
+        }
+    }
+}
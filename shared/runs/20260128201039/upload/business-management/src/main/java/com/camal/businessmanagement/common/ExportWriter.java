@@ -0,0 +1,98 @@
+package com.camal.businessmanagement.common;
+
+import org.springframework.util.ReflectionUtils;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes export rows one at a time to a response stream; nothing is buffered beyond the
+ * writer's own buffer.
+ *
+ * @param <T> response DTO type
+ */
+public final class ExportWriter<T> implements AutoCloseable {
+
+    private final ExportFormat format;
+    private final Writer writer;
+    private final ObjectMapper objectMapper;
+    private final List<Field> columns;
+
+    private ExportWriter(ExportFormat format, Class<T> rowType, OutputStream out, ObjectMapper objectMapper) {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+        this.columns = format == ExportFormat.CSV ? columnsOf(rowType) : List.of();
+    }
+
+    public static <T> ExportWriter<T> open(ExportFormat format, Class<T> rowType, OutputStream out, ObjectMapper objectMapper) {
+        ExportWriter<T> exportWriter = new ExportWriter<>(format, rowType, out, objectMapper);
+        if (format == ExportFormat.CSV) {
+            exportWriter.line(exportWriter.columns.stream().map(Field::getName).toList());
+        }
+        return exportWriter;
+    }
+
+    public void write(T row) {
+        if (format == ExportFormat.NDJSON) {
+            line(objectMapper.writeValueAsString(row));
+        } else {
+            line(columns.stream().map(column -> cell(ReflectionUtils.getField(column, row))).toList());
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void line(List<String> cells) {
+        line(String.join(",", cells.stream().map(ExportWriter::quote).toList()));
+    }
+
+    private void line(String text) {
+        try {
+            writer.write(text);
+            writer.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String cell(Object value) {
+        if (value == null) {
+            return "";
+        }
+        return value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+    }
+
+    private static String quote(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static List<Field> columnsOf(Class<?> rowType) {
+        List<Field> fields = Arrays.stream(rowType.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .toList();
+        fields.forEach(ReflectionUtils::makeAccessible);
+        return fields;
+    }
+}
@@ -0,0 +1,141 @@
+package com.camal.businessmanagement.common;
+
+import com.camal.businessmanagement.exception.BadRequestException;
+import com.camal.businessmanagement.search.RelevanceSort;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque cursor for keyset (seek) pagination.
+ * <p>
+ * A cursor carries the sort key values and id of the last row of a page, so the next page
+ * is fetched with {@code WHERE (sortKey, id) > (?, ?)} instead of {@code OFFSET n} and
+ * without a {@code count(*)} (see {@code KeysetScrolls}). Null key values are kept as a bare
+ * name. The sort itself is not part of the cursor: clients send the same {@code sort}
+ * parameter with every page. An empty cursor starts from the first row.
+ */
+public final class KeysetCursor {
+
+    private static final String ID = "id";
+
+    private KeysetCursor() {
+        // Utility class
+    }
+
+    /**
+     * Encodes the keys of a scroll position returned by {@code Window#positionAt}.
+     */
+    public static String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset) || keyset.isInitial()) {
+            return null;
+        }
+        StringBuilder payload = new StringBuilder();
+        for (Map.Entry<String, Object> key : keyset.getKeys().entrySet()) {
+            if (!payload.isEmpty()) {
+                payload.append('&');
+            }
+            payload.append(URLEncoder.encode(key.getKey(), StandardCharsets.UTF_8));
+            if (key.getValue() != null) {
+                payload.append('=')
+                        .append(URLEncoder.encode(key.getValue().toString(), StandardCharsets.UTF_8));
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor into a keyset position for the given entity and sort.
+     *
+     * @param cursor     cursor from a previous page, blank for the first page
+     * @param sort       sort requested by the client (must match the one used for the previous page)
+     * @param entityType entity class, used to restore the key value types
+     * @return forward keyset position
+     */
+    public static KeysetScrollPosition decode(String cursor, Sort sort, Class<?> entityType) {
+        if (RelevanceSort.isRequested(sort)) {
+            throw new BadRequestException("sort=relevance is not supported with cursor");
+        }
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            for (String pair : payload.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq == 0 || pair.isEmpty()) {
+                    throw new BadRequestException("Invalid cursor");
+                }
+                if (eq < 0) {
+                    String name = URLDecoder.decode(pair, StandardCharsets.UTF_8);
+                    fieldType(entityType, name);
+                    keys.put(name, null);
+                    continue;
+                }
+                String name = URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8);
+                String value = URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+                keys.put(name, convert(value, fieldType(entityType, name)));
+            }
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+
+        for (Sort.Order order : sort) {
+            if (!keys.containsKey(order.getProperty())) {
+                throw new BadRequestException("Cursor does not match sort: " + order.getProperty());
+            }
+        }
+        if (keys.get(ID) == null) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    private static Class<?> fieldType(Class<?> entityType, String name) {
+        Field field = ReflectionUtils.findField(entityType, name);
+        if (field == null) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return field.getType();
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        if (type == String.class) {
+            return value;
+        }
+        if (type == Long.class || type == long.class) {
+            return Long.valueOf(value);
+        }
+        if (type == Integer.class || type == int.class) {
+            return Integer.valueOf(value);
+        }
+        if (type == BigDecimal.class) {
+            return new BigDecimal(value);
+        }
+        if (type == Instant.class) {
+            try {
+                return Instant.parse(value);
+            } catch (RuntimeException ex) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return Boolean.valueOf(value);
+        }
+        throw new BadRequestException("Sort property not supported in cursor mode");
+    }
+}
@@ -0,0 +1,56 @@
+package com.camal.businessmanagement.common;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Envelope-free responses for clients that send {@code Accept: application/vnd.bm.lean+json}.
+ * <p>
+ * A successful {@link ApiEnvelope} is replaced by its {@code data}, and a {@link PageResponse}
+ * by its bare {@code items} array; the page metadata moves to the {@code X-Total-Count},
+ * {@code X-Has-Next} and {@code X-Next-Cursor} headers when it is known. Error responses keep
+ * the envelope, so failures look the same in both profiles.
+ */
+@ControllerAdvice
+public class LeanResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String LEAN_JSON_VALUE = "application/vnd.bm.lean+json";
+    public static final MediaType LEAN_JSON = MediaType.parseMediaType(LEAN_JSON_VALUE);
+
+    public static final String TOTAL_COUNT = "X-Total-Count";
+    public static final String HAS_NEXT = "X-Has-Next";
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!LEAN_JSON.isCompatibleWith(selectedContentType)
+                || !(body instanceof ApiEnvelope<?> envelope) || !envelope.isSuccess()) {
+            return body;
+        }
+        if (envelope.getData() instanceof PageResponse<?> page) {
+            if (page.getTotalElements() != null) {
+                response.getHeaders().set(TOTAL_COUNT, String.valueOf(page.getTotalElements()));
+            }
+            if (page.getHasNext() != null) {
+                response.getHeaders().set(HAS_NEXT, String.valueOf(page.getHasNext()));
+            }
+            if (page.getNextCursor() != null) {
+                response.getHeaders().set(NEXT_CURSOR, page.getNextCursor());
+            }
+            return page.getItems();
+        }
+        return envelope.getData();
+    }
+}
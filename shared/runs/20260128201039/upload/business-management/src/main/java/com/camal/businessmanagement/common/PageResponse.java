@@ -1,8 +1,11 @@
 // GENERATED BY java-project-crud.py
 package com.camal.businessmanagement.common;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
 
@@ -10,20 +13,47 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PageResponse<T> {
     private List<T> items;
-    private long totalElements;
-    private int totalPages;
-    private int page;
+    private Long totalElements;
+    private Integer totalPages;
+    private Integer page;
     private int size;
+    private String nextCursor;
+    private Boolean hasNext;
+    private CountMode countMode;
 
-    public static <T> PageResponse<T> from(Page<T> page) {
+    /**
+     * Offset page. Totals are present for {@link Page} results and reported as exact or
+     * estimated; a plain {@link Slice} carries only {@code hasNext}.
+     */
+    public static <T> PageResponse<T> from(Slice<T> slice) {
+        PageResponseBuilder<T> builder = PageResponse.<T>builder()
+                .items(slice.getContent())
+                .page(slice.getNumber())
+                .size(slice.getSize())
+                .hasNext(slice.hasNext());
+        if (slice instanceof Page<T> page) {
+            builder.totalElements(page.getTotalElements())
+                    .totalPages(page.getTotalPages())
+                    .countMode(page instanceof EstimatedPage ? CountMode.ESTIMATE : CountMode.EXACT);
+        } else {
+            builder.countMode(CountMode.NONE);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Keyset page: no totals, {@code nextCursor} is null on the last page.
+     */
+    public static <T> PageResponse<T> from(Window<T> window, int size) {
         return PageResponse.<T>builder()
-                .items(page.getContent())
-                .totalElements(page.getTotalElements())
-                .totalPages(page.getTotalPages())
-                .page(page.getNumber())
-                .size(page.getSize())
+                .items(window.getContent())
+                .size(size)
+                .hasNext(window.hasNext())
+                .countMode(CountMode.NONE)
+                .nextCursor(window.hasNext() ? KeysetCursor.encode(window.positionAt(window.size() - 1)) : null)
                 .build();
     }
 }
@@ -0,0 +1,57 @@
+package com.camal.businessmanagement.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Price aggregates over the rows matching a list filter. The margin of a row is
+ * {@code sellPrice - boughtPrice}; rows missing either price are left out of it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceStats {
+
+    /** Matching rows. */
+    private long count;
+    private Summary sellPrice;
+    private Summary boughtPrice;
+    private Summary margin;
+    /** Continuous margin percentiles keyed {@code p25}, {@code p50}, ... */
+    private Map<String, BigDecimal> marginPercentiles;
+    /** Equal-width sell price buckets from the minimum to the maximum, the last one inclusive. */
+    private List<Bucket> sellPriceHistogram;
+
+    /**
+     * Aggregates of one value; {@code count} is the rows that have it, the rest are null
+     * when none does.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Summary {
+        private long count;
+        private BigDecimal sum;
+        private BigDecimal avg;
+        private BigDecimal min;
+        private BigDecimal max;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private BigDecimal from;
+        private BigDecimal to;
+        private long count;
+    }
+}
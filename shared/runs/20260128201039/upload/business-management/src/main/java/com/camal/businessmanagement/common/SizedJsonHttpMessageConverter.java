@@ -0,0 +1,92 @@
+package com.camal.businessmanagement.common;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.autoconfigure.ServerProperties;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.JacksonJsonHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The JSON converter (plain and lean profile), sending every body with a {@code Content-Length}.
+ * <p>
+ * The stock converter writes straight into the response and flushes, which commits it before its
+ * length is known, so Tomcat sends it chunked and compresses it whatever its size. Serializing
+ * into a buffer first lets {@code server.compression.min-response-size} decide: small bodies go
+ * out plain, larger ones gzipped. Bodies are bounded (pages are capped at 200 items); exports
+ * stream through {@code StreamingResponseBody} and never reach this converter.
+ * <p>
+ * Knowing the length also tells whether Tomcat will gzip the body, which it only does for
+ * responses without a strong {@code ETag}. Such a response gets the weak form of its tag (see
+ * {@link ETags}); a plain one keeps the strong tag. A wrong guess either way only costs
+ * compression or a strong tag, never a wrong 304.
+ * <p>
+ * Declaring it as a bean replaces the converter Spring Boot would otherwise register.
+ */
+@Component
+public class SizedJsonHttpMessageConverter extends JacksonJsonHttpMessageConverter {
+
+    private final Compression compression;
+
+    public SizedJsonHttpMessageConverter(JsonMapper jsonMapper, ObjectProvider<ServerProperties> serverProperties) {
+        super(jsonMapper);
+        ServerProperties properties = serverProperties.getIfAvailable();
+        this.compression = properties == null ? null : properties.getCompression();
+    }
+
+    @Override
+    protected void writeInternal(Object object, ResolvableType resolvableType, HttpOutputMessage outputMessage,
+                                 Map<String, Object> hints) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+        super.writeInternal(object, resolvableType, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        }, hints);
+        HttpHeaders headers = outputMessage.getHeaders();
+        headers.setContentLength(body.size());
+        String etag = headers.getETag();
+        if (etag != null && !etag.startsWith("W/")
+                && RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && willCompress(attributes.getRequest(), headers.getContentType(), body.size())) {
+            // Spring MVC has already put the tag on the servlet response when evaluating If-None-Match
+            headers.remove(HttpHeaders.ETAG);
+            attributes.getResponse().setHeader(HttpHeaders.ETAG, ETags.weaken(etag));
+        }
+        body.writeTo(outputMessage.getBody());
+    }
+
+    /**
+     * Mirrors the container's decision: compression on, body at least {@code min-response-size},
+     * a compressible content type and a client that accepts gzip.
+     */
+    private boolean willCompress(HttpServletRequest request, MediaType contentType, long length) {
+        if (compression == null || !compression.getEnabled()
+                || length < compression.getMinResponseSize().toBytes() || contentType == null) {
+            return false;
+        }
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip")
+                && Arrays.stream(compression.getMimeTypes())
+                .anyMatch(type -> MediaType.parseMediaType(type).equalsTypeAndSubtype(contentType));
+    }
+}
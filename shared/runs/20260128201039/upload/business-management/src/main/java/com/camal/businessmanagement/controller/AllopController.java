@@ -1,13 +1,23 @@
 package com.camal.businessmanagement.controller;
 
+import com.camal.businessmanagement.common.BulkReport;
+import com.camal.businessmanagement.common.BulkRequest;
+import com.camal.businessmanagement.common.CountMode;
+import com.camal.businessmanagement.common.ExportFormat;
+import com.camal.businessmanagement.common.PageResponse;
 import com.camal.businessmanagement.dto.product.allop.AllopRequestDto;
 import com.camal.businessmanagement.dto.product.allop.AllopResponseDto;
 import com.camal.businessmanagement.service.AllopService;
 import jakarta.validation.Valid;
-import java.util.List;
+import java.util.Map;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @jakarta.annotation.Generated("java-project-crud.py")
 @RestController
@@ -26,14 +36,33 @@ public class AllopController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/bulk")
+    public BulkReport bulk(@RequestBody BulkRequest<AllopRequestDto, AllopRequestDto> request) {
+        return service.bulk(request);
+    }
+
     @GetMapping("/{id}")
     public AllopResponseDto getById(@PathVariable Long id) {
         return service.getById(id);
     }
 
     @GetMapping
-    public List<AllopResponseDto> getAll() {
-        return service.getAll();
+    public PageResponse<AllopResponseDto> list(@RequestParam Map<String, String> params, @RequestParam(required = false) String cursor, @RequestParam(required = false) String count, Pageable pageable) {
+        if (cursor != null) {
+            Window<AllopResponseDto> window = service.scroll(params, cursor, pageable);
+            return PageResponse.from(window, pageable.getPageSize());
+        }
+        return PageResponse.from(service.list(params, pageable, CountMode.from(count)));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam Map<String, String> params, @RequestParam(required = false) String format, Sort sort) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        var spec = service.exportFilter(params, sort);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"allops." + exportFormat.getExtension() + "\"")
+                .body(out -> service.export(spec, sort, exportFormat, out));
     }
 
     @PutMapping("/{id}")
@@ -42,8 +71,8 @@ public class AllopController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
-        service.delete(id);
+    public ResponseEntity<Void> delete(@PathVariable Long id, @RequestParam(required = false) Long version) {
+        service.delete(id, version);
         return ResponseEntity.noContent().build();
     }
 }
@@ -2,6 +2,10 @@
 package com.camal.businessmanagement.controller;
 
 import com.camal.businessmanagement.common.ApiEnvelope;
+import com.camal.businessmanagement.common.BulkReport;
+import com.camal.businessmanagement.common.BulkRequest;
+import com.camal.businessmanagement.common.CountMode;
+import com.camal.businessmanagement.common.ExportFormat;
 import com.camal.businessmanagement.common.PageResponse;
 import com.camal.businessmanagement.dto.product.guard.GuardCreateRequestDto;
 import com.camal.businessmanagement.dto.product.guard.GuardPatchRequestDto;
@@ -14,11 +18,15 @@ import jakarta.validation.Valid;
 import java.net.URI;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "Guard", description = "Guard CRUD API")
 @RestController
@@ -37,6 +45,12 @@ public class GuardController {
         return ResponseEntity.created(location).body(ApiEnvelope.ok("created", created));
     }
 
+    @Operation(summary = "Bulk create/update/delete Guard", description = "Applies create, update and delete lists in chunked transactions and reports each item")
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiEnvelope<BulkReport>> bulk(@RequestBody BulkRequest<GuardCreateRequestDto, GuardUpdateRequestDto> request) {
+        return ResponseEntity.ok(ApiEnvelope.ok("ok", service.bulk(request)));
+    }
+
     @Operation(summary = "Replace Guard (PUT)", description = "Full replace")
     @PutMapping("/{id}")
     public ResponseEntity<ApiEnvelope<GuardResponseDto>> update(@PathVariable Long id, @Valid @RequestBody GuardUpdateRequestDto dto) {
@@ -55,24 +69,43 @@ public class GuardController {
         return ResponseEntity.ok(ApiEnvelope.ok("ok", service.get(id)));
     }
 
-    @Operation(summary = "List Guard", description = "Filters via query params: q, field, minField/maxField, fromField/toField, relationId, relationIds")
+    @Operation(summary = "List Guard", description = "Filters via query params: q, field, minField/maxField, fieldIn=a,b,c, and filter=sellPrice>10 and (productName~'abc' or id in (1,2,3)); unknown parameters and sort properties are rejected. Pass cursor (empty for the first page) for keyset pagination without totals. count=exact|estimate|none selects how totals are computed; estimate only covers unfiltered lists (live rows from planner statistics, PostgreSQL only), otherwise no totals are returned and countMode reports NONE")
     @GetMapping
-    public ResponseEntity<ApiEnvelope<PageResponse<GuardResponseDto>>> list(@RequestParam Map<String, String> params, Pageable pageable) {
-        Page<GuardResponseDto> page = service.list(params, pageable);
+    public ResponseEntity<ApiEnvelope<PageResponse<GuardResponseDto>>> list(@RequestParam Map<String, String> params, @RequestParam(required = false) String cursor, @RequestParam(required = false) String count, Pageable pageable) {
+        if (cursor != null) {
+            Window<GuardResponseDto> window = service.scroll(params, cursor, pageable);
+            return ResponseEntity.ok(ApiEnvelope.ok("ok", PageResponse.from(window, pageable.getPageSize())));
+        }
+        Slice<GuardResponseDto> page = service.list(params, pageable, CountMode.from(count));
         return ResponseEntity.ok(ApiEnvelope.ok("ok", PageResponse.from(page)));
     }
 
     @Operation(summary = "Search Guard", description = "Alias for list with same filters")
     @GetMapping("/search")
-    public ResponseEntity<ApiEnvelope<PageResponse<GuardResponseDto>>> search(@RequestParam Map<String, String> params, Pageable pageable) {
-        Page<GuardResponseDto> page = service.search(params, pageable);
+    public ResponseEntity<ApiEnvelope<PageResponse<GuardResponseDto>>> search(@RequestParam Map<String, String> params, @RequestParam(required = false) String cursor, @RequestParam(required = false) String count, Pageable pageable) {
+        if (cursor != null) {
+            Window<GuardResponseDto> window = service.scroll(params, cursor, pageable);
+            return ResponseEntity.ok(ApiEnvelope.ok("ok", PageResponse.from(window, pageable.getPageSize())));
+        }
+        Slice<GuardResponseDto> page = service.search(params, pageable, CountMode.from(count));
         return ResponseEntity.ok(ApiEnvelope.ok("ok", PageResponse.from(page)));
     }
 
-    @Operation(summary = "Delete Guard (soft delete)")
+    @Operation(summary = "Export Guard", description = "Streams every row matching the list filters as NDJSON (format=ndjson, default) or CSV (format=csv)")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam Map<String, String> params, @RequestParam(required = false) String format, Sort sort) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        var spec = service.exportFilter(params, sort);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"guards." + exportFormat.getExtension() + "\"")
+                .body(out -> service.export(spec, sort, exportFormat, out));
+    }
+
+    @Operation(summary = "Delete Guard (soft delete)", description = "Pass version to delete only if the row is still at that version (409 otherwise)")
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
-        service.delete(id);
+    public ResponseEntity<Void> delete(@PathVariable Long id, @RequestParam(required = false) Long version) {
+        service.delete(id, version);
         return ResponseEntity.noContent().build();
     }
 }
@@ -2,23 +2,40 @@
 package com.camal.businessmanagement.controller;
 
 import com.camal.businessmanagement.common.ApiEnvelope;
+import com.camal.businessmanagement.common.BatchGetRequest;
+import com.camal.businessmanagement.common.BatchResponse;
+import com.camal.businessmanagement.common.BulkReport;
+import com.camal.businessmanagement.common.BulkRequest;
+import com.camal.businessmanagement.common.CountMode;
+import com.camal.businessmanagement.common.ETags;
+import com.camal.businessmanagement.common.ExportFormat;
 import com.camal.businessmanagement.common.PageResponse;
+import com.camal.businessmanagement.common.PriceStats;
 import com.camal.businessmanagement.dto.product.product.ProductCreateRequestDto;
 import com.camal.businessmanagement.dto.product.product.ProductPatchRequestDto;
 import com.camal.businessmanagement.dto.product.product.ProductResponseDto;
 import com.camal.businessmanagement.dto.product.product.ProductUpdateRequestDto;
+import com.camal.businessmanagement.exception.BadRequestException;
 import com.camal.businessmanagement.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "Product", description = "Product CRUD API")
 @RestController
@@ -34,45 +51,135 @@ public class ProductController {
     public ResponseEntity<ApiEnvelope<ProductResponseDto>> create(@Valid @RequestBody ProductCreateRequestDto dto) {
         ProductResponseDto created = service.create(dto);
         URI location = URI.create("/api/v1/products" + "/" + created.getId());
-        return ResponseEntity.created(location).body(ApiEnvelope.ok("created", created));
+        return ResponseEntity.created(location)
+                .eTag(ETags.of(created.getId(), created.getVersion()))
+                .body(ApiEnvelope.ok("created", created));
     }
 
-    @Operation(summary = "Replace Product (PUT)", description = "Full replace")
+    @Operation(summary = "Bulk create/update/delete Product", description = "Applies create, update and delete lists in chunked transactions and reports each item")
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiEnvelope<BulkReport>> bulk(@RequestBody BulkRequest<ProductCreateRequestDto, ProductUpdateRequestDto> request) {
+        return ResponseEntity.ok(ApiEnvelope.ok("ok", service.bulk(request)));
+    }
+
+    @Operation(summary = "Replace Product (PUT)", description = "Full replace. Send the ETag of the last read as If-Match (412 when stale); the body version is used without it (409 when stale)")
     @PutMapping("/{id}")
-    public ResponseEntity<ApiEnvelope<ProductResponseDto>> update(@PathVariable Long id, @Valid @RequestBody ProductUpdateRequestDto dto) {
-        return ResponseEntity.ok(ApiEnvelope.ok("updated", service.update(id, dto)));
+    public ResponseEntity<ApiEnvelope<ProductResponseDto>> update(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @Valid @RequestBody ProductUpdateRequestDto dto) {
+        return withETag(ApiEnvelope.ok("updated", service.update(id, dto, ETags.expectedVersion(ifMatch, id))));
     }
 
-    @Operation(summary = "Partial update Product (PATCH)", description = "Partial update (null ignored)")
+    @Operation(summary = "Partial update Product (PATCH)", description = "Partial update (null ignored). Send the ETag of the last read as If-Match (412 when stale); the body version is used without it (409 when stale)")
     @PatchMapping("/{id}")
-    public ResponseEntity<ApiEnvelope<ProductResponseDto>> patch(@PathVariable Long id, @Valid @RequestBody ProductPatchRequestDto dto) {
-        return ResponseEntity.ok(ApiEnvelope.ok("updated", service.patch(id, dto)));
+    public ResponseEntity<ApiEnvelope<ProductResponseDto>> patch(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @Valid @RequestBody ProductPatchRequestDto dto) {
+        return withETag(ApiEnvelope.ok("updated", service.patch(id, dto, ETags.expectedVersion(ifMatch, id))));
     }
 
-    @Operation(summary = "Get Product by id")
+    @Operation(summary = "Get Product by id", description = "Answers 304 when If-None-Match carries the current ETag")
     @GetMapping("/{id}")
-    public ResponseEntity<ApiEnvelope<ProductResponseDto>> get(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiEnvelope.ok("ok", service.get(id)));
+    public ResponseEntity<ApiEnvelope<ProductResponseDto>> get(@PathVariable Long id, WebRequest request) {
+        // Revalidation only needs the version: skip loading and mapping the row when it is unchanged
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> version = service.currentVersion(id);
+            if (version.isPresent() && request.checkNotModified(ETags.of(id, version.get()))) {
+                return null;
+            }
+        }
+        return withETag(ApiEnvelope.ok("ok", service.get(id)));
+    }
+
+    @Operation(summary = "Get several Product by id", description = "ids=1,2,3 returns the live rows in request order with one query (rows in the entity cache are not queried) and lists unknown or deleted ids under missing. At most 200 ids. Not combinable with fields")
+    @GetMapping(params = {"ids", "!fields"})
+    public ResponseEntity<ApiEnvelope<BatchResponse<ProductResponseDto>>> getAll(@RequestParam String ids) {
+        return ResponseEntity.ok(ApiEnvelope.ok("ok", service.getAll(parseIds(ids))));
+    }
+
+    @Operation(summary = "Get several Product by id (POST)", description = "Same as GET with ids=, for id lists too long for a URL")
+    @PostMapping("/_mget")
+    public ResponseEntity<ApiEnvelope<BatchResponse<ProductResponseDto>>> getAll(@RequestBody BatchGetRequest request) {
+        return ResponseEntity.ok(ApiEnvelope.ok("ok", service.getAll(request.getIds() == null ? List.of() : request.getIds())));
     }
 
-    @Operation(summary = "List Product", description = "Filters via query params: q, field, minField/maxField, fromField/toField, relationId, relationIds")
+    @Operation(summary = "List Product", description = "Filters via query params: q, field, minField/maxField, fieldIn=a,b,c, and filter=sellPrice>10 and (productName~'abc' or id in (1,2,3)); unknown parameters and sort properties are rejected. Pass cursor (empty for the first page) for keyset pagination without totals. count=exact|estimate|none selects how totals are computed; estimate only covers unfiltered lists (live rows from planner statistics, PostgreSQL only), otherwise no totals are returned and countMode reports NONE")
     @GetMapping
-    public ResponseEntity<ApiEnvelope<PageResponse<ProductResponseDto>>> list(@RequestParam Map<String, String> params, Pageable pageable) {
-        Page<ProductResponseDto> page = service.list(params, pageable);
+    public ResponseEntity<ApiEnvelope<PageResponse<ProductResponseDto>>> list(@RequestParam Map<String, String> params, @RequestParam(required = false) String cursor, @RequestParam(required = false) String count, Pageable pageable) {
+        if (cursor != null) {
+            Window<ProductResponseDto> window = service.scroll(params, cursor, pageable);
+            return withWeakETag(PageResponse.from(window, pageable.getPageSize()));
+        }
+        Slice<ProductResponseDto> page = service.list(params, pageable, CountMode.from(count));
+        return withWeakETag(PageResponse.from(page));
+    }
+
+    @Operation(summary = "List Product with a sparse fieldset", description = "Same filters, sort and count modes as list; fields=id,productName,... selects only those columns. Not available with cursor")
+    @GetMapping(value = {"", "/search"}, params = "fields")
+    public ResponseEntity<ApiEnvelope<PageResponse<Map<String, Object>>>> listFields(@RequestParam Map<String, String> params, @RequestParam String fields, @RequestParam(required = false) String count, Pageable pageable) {
+        if (params.containsKey("cursor")) {
+            throw new BadRequestException("fields is not supported with cursor");
+        }
+        Slice<Map<String, Object>> page = service.list(params, fields, pageable, CountMode.from(count));
         return ResponseEntity.ok(ApiEnvelope.ok("ok", PageResponse.from(page)));
     }
 
+    @Operation(summary = "Product price statistics", description = "Count, sum, average, min and max of sellPrice, boughtPrice and margin (sellPrice - boughtPrice), margin percentiles and a sellPrice histogram of buckets=1..50 (default 10) equal-width buckets, computed by the database over the rows matching the list filters. Cached per filter for app.stats.ttl")
+    @GetMapping("/stats")
+    public ResponseEntity<ApiEnvelope<PriceStats>> stats(@RequestParam Map<String, String> params) {
+        return ResponseEntity.ok(ApiEnvelope.ok("ok", service.stats(params)));
+    }
+
     @Operation(summary = "Search Product", description = "Alias for list with same filters")
     @GetMapping("/search")
-    public ResponseEntity<ApiEnvelope<PageResponse<ProductResponseDto>>> search(@RequestParam Map<String, String> params, Pageable pageable) {
-        Page<ProductResponseDto> page = service.search(params, pageable);
-        return ResponseEntity.ok(ApiEnvelope.ok("ok", PageResponse.from(page)));
+    public ResponseEntity<ApiEnvelope<PageResponse<ProductResponseDto>>> search(@RequestParam Map<String, String> params, @RequestParam(required = false) String cursor, @RequestParam(required = false) String count, Pageable pageable) {
+        if (cursor != null) {
+            Window<ProductResponseDto> window = service.scroll(params, cursor, pageable);
+            return withWeakETag(PageResponse.from(window, pageable.getPageSize()));
+        }
+        Slice<ProductResponseDto> page = service.search(params, pageable, CountMode.from(count));
+        return withWeakETag(PageResponse.from(page));
+    }
+
+    @Operation(summary = "Export Product", description = "Streams every row matching the list filters as NDJSON (format=ndjson, default) or CSV (format=csv)")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam Map<String, String> params, @RequestParam(required = false) String format, Sort sort) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        var spec = service.exportFilter(params, sort);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + exportFormat.getExtension() + "\"")
+                .body(out -> service.export(spec, sort, exportFormat, out));
     }
 
-    @Operation(summary = "Delete Product (soft delete)")
+    @Operation(summary = "Delete Product (soft delete)", description = "Pass version to delete only if the row is still at that version (409 otherwise)")
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
-        service.delete(id);
+    public ResponseEntity<Void> delete(@PathVariable Long id, @RequestParam(required = false) Long version) {
+        service.delete(id, version);
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity<ApiEnvelope<ProductResponseDto>> withETag(ApiEnvelope<ProductResponseDto> body) {
+        return ResponseEntity.ok()
+                .eTag(ETags.of(body.getData().getId(), body.getData().getVersion()))
+                .body(body);
+    }
+
+    private static ResponseEntity<ApiEnvelope<PageResponse<ProductResponseDto>>> withWeakETag(PageResponse<ProductResponseDto> page) {
+        return ResponseEntity.ok()
+                .eTag(ETags.weak(page.getItems(), ProductResponseDto::getId, ProductResponseDto::getVersion,
+                        page.getTotalElements(), page.getPage(), page.getSize(), page.getHasNext(), page.getNextCursor()))
+                .body(ApiEnvelope.ok("ok", page));
+    }
+
+    private static List<Long> parseIds(String ids) {
+        List<Long> parsed = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            if (id.isBlank()) {
+                continue;
+            }
+            try {
+                parsed.add(Long.valueOf(id.trim()));
+            } catch (NumberFormatException ex) {
+                throw new BadRequestException("Invalid id: " + id.trim());
+            }
+        }
+        return parsed;
+    }
 }
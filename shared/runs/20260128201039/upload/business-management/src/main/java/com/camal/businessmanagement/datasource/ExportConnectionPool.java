@@ -0,0 +1,60 @@
+package com.camal.businessmanagement.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Connection pool for streaming exports, separate from the application pool.
+ * <p>
+ * An export holds its connection for as long as the download runs, up to
+ * {@code spring.mvc.async.request-timeout}. On the application pool that would take connections
+ * from ordinary requests and trip its leak detection, which is kept short there to catch real
+ * leaks. This pool has no leak detection and holds at most {@code app.export.pool-size}
+ * read-only connections to the primary database, opened on demand. It is not a
+ * {@code DataSource} bean, so the auto-configured pool and its consumers are unaffected.
+ */
+@Component
+public class ExportConnectionPool implements DisposableBean {
+
+    private final HikariDataSource pool;
+
+    public ExportConnectionPool(DataSourceProperties properties,
+                                MeterRegistry meterRegistry,
+                                @Value("${spring.datasource.hikari.pool-name:HikariPool}") String poolName,
+                                @Value("${app.export.pool-size:${app.db.export-concurrency:2}}") int poolSize,
+                                @Value("${app.export.connection-timeout:3s}") Duration connectionTimeout) {
+        pool = new HikariDataSource();
+        pool.setPoolName(poolName + "-export");
+        pool.setJdbcUrl(properties.determineUrl());
+        pool.setUsername(properties.determineUsername());
+        pool.setPassword(properties.determinePassword());
+        pool.setDriverClassName(properties.determineDriverClassName());
+        pool.setMaximumPoolSize(poolSize);
+        pool.setMinimumIdle(0);
+        pool.setConnectionTimeout(connectionTimeout.toMillis());
+        pool.setReadOnly(true);
+        // Cursor-based fetching on PostgreSQL needs a transaction
+        pool.setAutoCommit(false);
+        pool.setMetricRegistry(meterRegistry);
+    }
+
+    /**
+     * A read-only connection without auto-commit; closing it returns it to the pool.
+     */
+    public Connection getConnection() throws SQLException {
+        return pool.getConnection();
+    }
+
+    @Override
+    public void destroy() {
+        pool.close();
+    }
+}
@@ -0,0 +1,73 @@
+package com.camal.businessmanagement.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Keeps reads on the primary after a write, so a client does not read a replica that has not
+ * replayed its own change yet.
+ * <p>
+ * When a read-write transaction commits, the rest of the request reads from the primary and
+ * the response carries a {@value #COOKIE} cookie holding the time until which that client's
+ * following requests do the same. Outside a web request nothing is pinned.
+ */
+public class ReadYourWrites implements TransactionExecutionListener {
+
+    static final String COOKIE = "primary-reads-until";
+    private static final String ATTRIBUTE = ReadYourWrites.class.getName() + ".pinned";
+
+    private final Duration window;
+
+    public ReadYourWrites(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (!window.isZero() && commitFailure == null && !transaction.isReadOnly()
+                && RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            attributes.setAttribute(ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+            HttpServletResponse response = attributes.getResponse();
+            if (response != null && !response.isCommitted()) {
+                Cookie cookie = new Cookie(COOKIE, String.valueOf(System.currentTimeMillis() + window.toMillis()));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+                response.addCookie(cookie);
+            }
+        }
+    }
+
+    /**
+     * @return whether reads of the current request must go to the primary
+     */
+    static boolean pinnedToPrimary() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        if (attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (COOKIE.equals(cookie.getName())) {
+                    try {
+                        return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                    } catch (NumberFormatException ex) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
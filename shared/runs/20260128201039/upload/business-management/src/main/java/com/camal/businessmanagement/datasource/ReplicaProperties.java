@@ -0,0 +1,41 @@
+package com.camal.businessmanagement.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas under {@code app.datasource}. Routing is only set up when at least one
+ * replica URL is configured.
+ *
+ * @param replicas       replica connections; pool settings are copied from the primary
+ * @param maxLag         replicas further behind than this are skipped until they catch up
+ * @param checkInterval  how often replication lag is measured
+ * @param lagQuery       returns the replica lag in seconds (0 when in sync)
+ * @param readYourWrites after a write, how long reads of the same client stay on the primary
+ *                       ({@link Duration#ZERO} turns read-your-writes off)
+ */
+@ConfigurationProperties("app.datasource")
+public record ReplicaProperties(
+        List<Replica> replicas,
+        Duration maxLag,
+        Duration checkInterval,
+        String lagQuery,
+        Duration readYourWrites) {
+
+    static final String POSTGRES_LAG_QUERY = """
+            select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                        else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end""";
+
+    public ReplicaProperties {
+        replicas = replicas == null ? List.of() : List.copyOf(replicas);
+        maxLag = maxLag == null ? Duration.ofSeconds(5) : maxLag;
+        checkInterval = checkInterval == null ? Duration.ofSeconds(2) : checkInterval;
+        lagQuery = lagQuery == null ? POSTGRES_LAG_QUERY : lagQuery;
+        readYourWrites = readYourWrites == null ? Duration.ofSeconds(5) : readYourWrites;
+    }
+
+    public record Replica(String url, String username, String password) {
+    }
+}
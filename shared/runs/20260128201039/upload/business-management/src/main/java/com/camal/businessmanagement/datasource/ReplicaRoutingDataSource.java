@@ -0,0 +1,154 @@
+package com.camal.businessmanagement.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a read replica and everything else to the primary.
+ * <p>
+ * The key is resolved when a connection is taken from the pool. Behind a
+ * {@code LazyConnectionDataSourceProxy} that is the first statement of the transaction, so the
+ * {@code readOnly} flag of {@code @Transactional} is already known. Replicas are picked round-robin
+ * among those whose last lag check succeeded and stayed under {@code maxLag}; when none qualifies,
+ * or the request is pinned by {@link ReadYourWrites}, reads go to the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private final List<ReplicaState> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final String lagQuery;
+    private final ScheduledExecutorService scheduler;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.maxLag = properties.maxLag();
+        this.checkInterval = properties.checkInterval();
+        this.lagQuery = properties.lagQuery();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            targets.put(name, dataSource);
+            ReplicaState state = new ReplicaState(name, dataSource);
+            this.replicas.add(state);
+            Gauge.builder("app.datasource.replica.lag", state, s -> s.lagSeconds)
+                    .tag("replica", name)
+                    .baseUnit("seconds")
+                    .description("Replication lag measured by the last check")
+                    .register(meterRegistry);
+            Gauge.builder("app.datasource.replica.available", state, s -> s.available ? 1 : 0)
+                    .tag("replica", name)
+                    .description("1 while the replica receives read-only transactions")
+                    .register(meterRegistry);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+        long interval = Math.max(checkInterval.toMillis(), 100);
+        scheduler.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadYourWrites.pinnedToPrimary()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            ReplicaState replica = replicas.get((start + i) % size);
+            if (replica.available) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Measures the lag of every replica and updates which ones take reads. Runs on a schedule;
+     * public so a check can be forced.
+     */
+    public void checkReplicas() {
+        for (ReplicaState replica : replicas) {
+            boolean wasAvailable = replica.available;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                double lag = rs.next() ? rs.getDouble(1) : Double.MAX_VALUE;
+                replica.lagSeconds = lag;
+                replica.available = lag * 1000 <= maxLag.toMillis();
+            } catch (SQLException | RuntimeException ex) {
+                replica.lagSeconds = Double.NaN;
+                replica.available = false;
+                if (wasAvailable) {
+                    log.warn("Replica {} failed its lag check, reading from the primary", replica.name, ex);
+                }
+            }
+            if (wasAvailable && !replica.available && !Double.isNaN(replica.lagSeconds)) {
+                log.warn("Replica {} is {}s behind (max {}), reading from the primary",
+                        replica.name, replica.lagSeconds, maxLag.toSeconds());
+            } else if (!wasAvailable && replica.available) {
+                log.info("Replica {} is back in rotation", replica.name);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        scheduler.shutdownNow();
+        // Replica pools are owned here, the primary is a bean of its own
+        for (ReplicaState replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class ReplicaState {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean available;
+        private volatile double lagSeconds = Double.NaN;
+
+        private ReplicaState(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
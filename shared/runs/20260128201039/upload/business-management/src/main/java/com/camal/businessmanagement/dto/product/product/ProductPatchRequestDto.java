@@ -1,7 +1,6 @@
 package com.camal.businessmanagement.dto.product.product;
 
 import jakarta.validation.constraints.DecimalMin;
-import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,7 +18,9 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 public class ProductPatchRequestDto {
 
-    @NotNull(message = "Version is required for optimistic locking")
+    /**
+     * Expected version; may be sent as {@code If-Match} instead, which takes precedence.
+     */
     private Long version;
 
     @Size(max = 500, message = "URL must not exceed 500 characters")
@@ -20,7 +20,9 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 public class ProductUpdateRequestDto {
 
-    @NotNull(message = "Version is required for optimistic locking")
+    /**
+     * Expected version; may be sent as {@code If-Match} instead, which takes precedence.
+     */
     private Long version;
 
     @Size(max = 500, message = "URL must not exceed 500 characters")
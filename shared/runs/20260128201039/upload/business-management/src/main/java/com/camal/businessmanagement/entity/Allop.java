@@ -1,11 +1,14 @@
 package com.camal.businessmanagement.entity;
 
+import com.camal.businessmanagement.filter.Searchable;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
@@ -13,6 +16,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -27,6 +32,8 @@ import java.time.Instant;
  */
 @Entity
 @Table(name = "allops")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "allops")
 @Getter
 @Setter
 @Builder
@@ -36,13 +43,16 @@ import java.time.Instant;
 public class Allop {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "allops_seq")
+    @SequenceGenerator(name = "allops_seq", sequenceName = "allops_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 500)
+    @Searchable
     private String url;
 
     @Column(name = "product_name", length = 255)
+    @Searchable
     private String productName;
 
     @Column(name = "bought_price", precision = 19, scale = 4)
@@ -52,6 +62,7 @@ public class Allop {
     private BigDecimal sellPrice;
 
     @Column(columnDefinition = "TEXT")
+    @Searchable
     private String description;
 
     @CreatedDate
@@ -1,12 +1,14 @@
 // 
 package com.camal.businessmanagement.entity;
 
+import com.camal.businessmanagement.filter.Searchable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
@@ -36,10 +38,12 @@ import java.time.Instant;
 public class Masson {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "massons_seq")
+    @SequenceGenerator(name = "massons_seq", sequenceName = "massons_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", length = 255)
+    @Searchable
     private String name;
 
     @Column(name = "age", length = 50)
@@ -4,29 +4,37 @@ package com.camal.businessmanagement.exception;
 import com.camal.businessmanagement.common.ApiError;
 import com.camal.businessmanagement.common.ApiEnvelope;
 import com.camal.businessmanagement.common.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ApiEnvelope<ApiError>> notFound(NotFoundException ex, HttpServletRequest req) {
+        count(req, HttpStatus.NOT_FOUND, ex.getErrorCode());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.fail(
                 ex.getMessage(),
                 ApiError.builder()
@@ -41,6 +49,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<ApiEnvelope<ApiError>> badRequest(BadRequestException ex, HttpServletRequest req) {
+        count(req, HttpStatus.BAD_REQUEST, ex.getErrorCode());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.fail(
                 ex.getMessage(),
                 ApiError.builder()
@@ -55,6 +64,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(ConflictException.class)
     public ResponseEntity<ApiEnvelope<ApiError>> conflict(ConflictException ex, HttpServletRequest req) {
+        count(req, HttpStatus.CONFLICT, ex.getErrorCode());
         return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiEnvelope.fail(
                 ex.getMessage(),
                 ApiError.builder()
@@ -67,8 +77,41 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiEnvelope<ApiError>> preconditionFailed(PreconditionFailedException ex, HttpServletRequest req) {
+        count(req, HttpStatus.PRECONDITION_FAILED, ex.getErrorCode());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ApiEnvelope.fail(
+                ex.getMessage(),
+                ApiError.builder()
+                        .timestamp(Instant.now())
+                        .path(req.getRequestURI())
+                        .errorCode(ex.getErrorCode())
+                        .message(ex.getMessage())
+                        .details(List.of())
+                        .build()
+        ));
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiEnvelope<ApiError>> unavailable(ServiceUnavailableException ex, HttpServletRequest req) {
+        count(req, HttpStatus.SERVICE_UNAVAILABLE, ex.getErrorCode());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiEnvelope.fail(
+                        ex.getMessage(),
+                        ApiError.builder()
+                                .timestamp(Instant.now())
+                                .path(req.getRequestURI())
+                                .errorCode(ex.getErrorCode())
+                                .message(ex.getMessage())
+                                .details(List.of())
+                                .build()
+                ));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiEnvelope<ApiError>> validation(MethodArgumentNotValidException ex, HttpServletRequest req) {
+        count(req, HttpStatus.BAD_REQUEST, ErrorCode.VALIDATION_ERROR);
         List<String> details = ex.getBindingResult().getFieldErrors().stream()
                 .map(e -> e.getField() + ": " + e.getDefaultMessage())
                 .collect(Collectors.toList());
@@ -87,6 +130,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<ApiEnvelope<ApiError>> constraint(ConstraintViolationException ex, HttpServletRequest req) {
+        count(req, HttpStatus.BAD_REQUEST, ErrorCode.VALIDATION_ERROR);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.fail(
                 "Validation error",
                 ApiError.builder()
@@ -101,6 +145,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
     public ResponseEntity<ApiEnvelope<ApiError>> optimistic(ObjectOptimisticLockingFailureException ex, HttpServletRequest req) {
+        count(req, HttpStatus.CONFLICT, ErrorCode.CONFLICT);
         return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiEnvelope.fail(
                 "Conflict",
                 ApiError.builder()
@@ -115,6 +160,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ApiEnvelope<ApiError>> integrity(DataIntegrityViolationException ex, HttpServletRequest req) {
+        count(req, HttpStatus.CONFLICT, ErrorCode.CONFLICT);
         return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiEnvelope.fail(
                 "Conflict",
                 ApiError.builder()
@@ -130,6 +176,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiEnvelope<ApiError>> general(Exception ex, HttpServletRequest req) {
         log.error("Unhandled exception on {}", req.getRequestURI(), ex);
+        count(req, HttpStatus.INTERNAL_SERVER_ERROR, ErrorCode.INTERNAL_ERROR);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ApiEnvelope.fail(
                 "Internal error",
                 ApiError.builder()
@@ -141,4 +188,12 @@ public class GlobalExceptionHandler {
                         .build()
         ));
     }
+
+    private void count(HttpServletRequest req, HttpStatus status, ErrorCode code) {
+        Object uri = req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        meterRegistry.counter("app.errors",
+                "status", String.valueOf(status.value()),
+                "code", code.name(),
+                "uri", uri != null ? uri.toString() : "UNKNOWN").increment();
+    }
 }
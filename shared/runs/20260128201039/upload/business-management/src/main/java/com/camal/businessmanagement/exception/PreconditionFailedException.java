@@ -0,0 +1,13 @@
+package com.camal.businessmanagement.exception;
+
+import com.camal.businessmanagement.common.ErrorCode;
+import lombok.Getter;
+
+@Getter
+public class PreconditionFailedException extends RuntimeException {
+    private final ErrorCode errorCode = ErrorCode.PRECONDITION_FAILED;
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.camal.businessmanagement.exception;
+
+import com.camal.businessmanagement.common.ErrorCode;
+import lombok.Getter;
+
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+    private final ErrorCode errorCode = ErrorCode.SERVICE_UNAVAILABLE;
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
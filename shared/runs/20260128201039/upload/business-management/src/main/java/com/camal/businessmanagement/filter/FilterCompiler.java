@@ -0,0 +1,88 @@
+package com.camal.businessmanagement.filter;
+
+import com.camal.businessmanagement.search.RelevanceSort;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Turns list query parameters into specifications through a bounded cache of
+ * {@link FilterPlan}s, one per entity and set of present filter parameters. The
+ * parameters each entity accepts come from the {@link FilterRegistry}.
+ * <p>
+ * Cache statistics are published as {@code cache.gets}/{@code cache.evictions} with
+ * {@code cache=filter.plans}; size it with {@code app.filter.plan-cache-size}.
+ */
+@Component
+public class FilterCompiler {
+
+    private final FilterRegistry registry;
+    private final Cache<Shape, FilterPlan<?>> plans;
+
+    public FilterCompiler(FilterRegistry registry,
+                          @Value("${app.filter.plan-cache-size:256}") int maxPlans,
+                          MeterRegistry meterRegistry) {
+        this.registry = registry;
+        this.plans = Caffeine.newBuilder()
+                .maximumSize(maxPlans)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, plans, "filter.plans");
+    }
+
+    /**
+     * Filters of {@code params}, soft-deleted rows excluded. A {@code filter} expression is
+     * parsed per request and ANDed with the parameter filters.
+     *
+     * @throws com.camal.businessmanagement.exception.BadRequestException for unknown parameters
+     *                                                                    or invalid values
+     */
+    public <T> Specification<T> specification(Class<T> entityType, Map<String, String> params) {
+        Specification<T> spec = plan(entityType, params).bind(params);
+        String filter = params.get(FilterExpression.PARAM);
+        if (filter != null && !filter.isBlank()) {
+            FilterExpression expression = FilterExpression.parse(filter, registry.definition(entityType));
+            spec = spec.and((root, query, cb) -> expression.toPredicate(root, cb));
+        }
+        return spec;
+    }
+
+    /**
+     * Same as {@link #specification(Class, Map)}, plus relevance ordering when the sort asks
+     * for {@code relevance}. Sort properties are checked against the entity's attributes.
+     */
+    public <T> Specification<T> specification(Class<T> entityType, Map<String, String> params, Sort sort) {
+        FilterDefinition<T> definition = registry.definition(entityType);
+        definition.validateSort(sort);
+        Specification<T> spec = specification(entityType, params);
+        if (RelevanceSort.isRequested(sort) && definition.searchParam() != null) {
+            spec = spec.and(RelevanceSort.orderBy(params.get(definition.searchParam()), sort, definition.searchAttributes()));
+        }
+        return spec;
+    }
+
+    /**
+     * Whether any filter beyond the soft-delete predicate applies.
+     */
+    public boolean hasFilters(Class<?> entityType, Map<String, String> params) {
+        String filter = params.get(FilterExpression.PARAM);
+        return registry.definition(entityType).hasFilters(params) || (filter != null && !filter.isBlank());
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> FilterPlan<T> plan(Class<T> entityType, Map<String, String> params) {
+        FilterDefinition<T> definition = registry.definition(entityType);
+        Shape shape = new Shape(definition, definition.shape(params));
+        return (FilterPlan<T>) plans.get(shape, key -> FilterPlan.compile(definition, key.fields()));
+    }
+
+    private record Shape(FilterDefinition<?> definition, long fields) {
+    }
+}
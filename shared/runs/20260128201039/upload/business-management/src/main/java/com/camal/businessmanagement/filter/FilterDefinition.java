@@ -0,0 +1,211 @@
+package com.camal.businessmanagement.filter;
+
+import com.camal.businessmanagement.exception.BadRequestException;
+import com.camal.businessmanagement.search.RelevanceSort;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The filter query parameters and sort properties an entity supports.
+ * <p>
+ * Fields keep their declaration order, which is also the order of the predicates in every
+ * compiled plan, so two requests with the same parameters produce the same query shape
+ * whatever order the parameters came in. Parameters that are neither a filter, the
+ * {@link FilterExpression#PARAM filter expression} nor one of the {@link #CONTROL_PARAMETERS}
+ * are rejected.
+ *
+ * @param <T> entity type
+ */
+public final class FilterDefinition<T> {
+
+    /** Paging, sorting and response parameters that list endpoints read themselves. */
+    public static final Set<String> CONTROL_PARAMETERS = Set.of("page", "size", "sort", "cursor", "count", "fields", "format");
+
+    private final Class<T> entityType;
+    private final List<FilterField> fields;
+    private final Map<String, Integer> index;
+    private final Map<String, Class<?>> attributes;
+    private final Set<String> sortable;
+    private final String softDeleteAttribute;
+    private final String searchParam;
+    private final String[] searchAttributes;
+
+    private FilterDefinition(Builder<T> builder) {
+        this.entityType = builder.entityType;
+        this.fields = List.copyOf(builder.fields);
+        this.attributes = Map.copyOf(builder.attributes);
+        this.sortable = Set.copyOf(builder.sortable);
+        this.softDeleteAttribute = builder.softDeleteAttribute;
+        this.searchParam = builder.searchParam;
+        this.searchAttributes = builder.searchAttributes;
+        if (fields.size() > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " filter fields per entity");
+        }
+        this.index = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            String param = fields.get(i).param();
+            if (CONTROL_PARAMETERS.contains(param) || index.put(param, i) != null) {
+                throw new IllegalArgumentException("Filter parameter " + param + " of " + entityType.getSimpleName() + " is already taken");
+            }
+        }
+    }
+
+    public static <T> Builder<T> of(Class<T> entityType) {
+        return new Builder<>(entityType);
+    }
+
+    public Class<T> entityType() {
+        return entityType;
+    }
+
+    public List<FilterField> fields() {
+        return fields;
+    }
+
+    /** Boolean attribute that marks soft-deleted rows, or null when rows are never soft-deleted. */
+    public String softDeleteAttribute() {
+        return softDeleteAttribute;
+    }
+
+    /** Parameter of the full-text search, or null. */
+    public String searchParam() {
+        return searchParam;
+    }
+
+    /** Attributes ranked by {@code sort=relevance}. */
+    public String[] searchAttributes() {
+        return searchAttributes.clone();
+    }
+
+    /**
+     * Value type of an attribute usable in filter expressions, or null when there is none by that name.
+     */
+    public Class<?> attributeType(String attribute) {
+        return attributes.get(attribute);
+    }
+
+    /** Attributes accepted in {@code sort}, besides {@code relevance}. */
+    public Set<String> sortable() {
+        return sortable;
+    }
+
+    /**
+     * The set of fields present in {@code params}, one bit per field in declaration order.
+     *
+     * @throws BadRequestException when a parameter is not a filter of this entity
+     */
+    public long shape(Map<String, String> params) {
+        long shape = 0;
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            Integer i = index.get(param.getKey());
+            if (i == null) {
+                if (!CONTROL_PARAMETERS.contains(param.getKey()) && !param.getKey().equals(FilterExpression.PARAM)) {
+                    throw new BadRequestException("Unknown filter parameter: " + param.getKey());
+                }
+            } else if (param.getValue() != null && !param.getValue().isBlank()) {
+                shape |= 1L << i;
+            }
+        }
+        return shape;
+    }
+
+    /**
+     * @throws BadRequestException when the sort names an attribute that cannot be sorted on
+     */
+    public void validateSort(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!sortable.contains(order.getProperty()) && !order.getProperty().equals(RelevanceSort.RELEVANCE)) {
+                throw new BadRequestException("Unknown sort property: " + order.getProperty());
+            }
+        }
+    }
+
+    /**
+     * Whether any filter beyond the soft-delete predicate applies.
+     */
+    public boolean hasFilters(Map<String, String> params) {
+        return shape(params) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return "FilterDefinition[" + entityType.getSimpleName() + "]";
+    }
+
+    public static final class Builder<T> {
+
+        private final Class<T> entityType;
+        private final List<FilterField> fields = new ArrayList<>();
+        private final Map<String, Class<?>> attributes = new HashMap<>();
+        private final Set<String> sortable = new LinkedHashSet<>();
+        private String softDeleteAttribute;
+        private String searchParam;
+        private String[] searchAttributes = new String[0];
+
+        private Builder(Class<T> entityType) {
+            this.entityType = entityType;
+        }
+
+        public Builder<T> softDelete(String attribute) {
+            this.softDeleteAttribute = attribute;
+            return this;
+        }
+
+        /** Full-text search over {@code attributes}, also used for {@code sort=relevance}. */
+        public Builder<T> search(String param, String... attributes) {
+            this.searchParam = param;
+            this.searchAttributes = attributes.clone();
+            return contains(param, attributes);
+        }
+
+        public Builder<T> contains(String param, String... attributes) {
+            fields.add(new FilterField(param, FilterOperator.CONTAINS, List.of(attributes), String.class));
+            return this;
+        }
+
+        public Builder<T> equal(String param, String attribute, Class<?> type) {
+            fields.add(new FilterField(param, FilterOperator.EQUAL, List.of(attribute), type));
+            return this;
+        }
+
+        /** Exact match on {@code attribute} plus inclusive {@code min<Attribute>} / {@code max<Attribute>} bounds. */
+        public Builder<T> range(String attribute, Class<?> type) {
+            String suffix = capitalize(attribute);
+            equal(attribute, attribute, type);
+            fields.add(new FilterField("min" + suffix, FilterOperator.AT_LEAST, List.of(attribute), type));
+            fields.add(new FilterField("max" + suffix, FilterOperator.AT_MOST, List.of(attribute), type));
+            return this;
+        }
+
+        /** Comma-separated list of accepted values, as {@code <attribute>In}. */
+        public Builder<T> in(String attribute, Class<?> type) {
+            fields.add(new FilterField(attribute + "In", FilterOperator.IN, List.of(attribute), type));
+            return this;
+        }
+
+        /** Makes {@code attribute} available to filter expressions. */
+        public Builder<T> attribute(String attribute, Class<?> type) {
+            attributes.put(attribute, type);
+            return this;
+        }
+
+        public Builder<T> sortable(String attribute) {
+            sortable.add(attribute);
+            return this;
+        }
+
+        public FilterDefinition<T> build() {
+            return new FilterDefinition<>(this);
+        }
+
+        private static String capitalize(String attribute) {
+            return Character.toUpperCase(attribute.charAt(0)) + attribute.substring(1);
+        }
+    }
+}
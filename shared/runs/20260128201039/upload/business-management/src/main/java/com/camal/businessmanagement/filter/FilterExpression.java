@@ -0,0 +1,323 @@
+package com.camal.businessmanagement.filter;
+
+import com.camal.businessmanagement.exception.BadRequestException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code filter} list parameter: comparisons on entity attributes combined with
+ * {@code and}, {@code or}, {@code not} and parentheses, for example
+ * {@code sellPrice>10 and (productName~'abc' or id in (1,2,3))}.
+ * <p>
+ * Comparisons are {@code = != > >= < <=}, {@code ~} (case-insensitive substring, text only),
+ * {@code in (a, b, ...)} and {@code is [not] null}. Values are single-quoted strings
+ * ({@code ''} inside for a quote) or bare words such as numbers, booleans and ISO timestamps.
+ * Attribute names and values are checked against the entity's {@link FilterDefinition} while
+ * parsing, so a bad expression is a 400 and never reaches the database. The expression becomes
+ * a single predicate with its values as bind parameters.
+ */
+public final class FilterExpression {
+
+    public static final String PARAM = "filter";
+
+    static final int MAX_LENGTH = 2000;
+    static final int MAX_DEPTH = 32;
+
+    private final Node root;
+
+    private FilterExpression(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * @throws BadRequestException when the expression is malformed, names an unknown attribute
+     *                             or has a value that does not fit the attribute
+     */
+    public static FilterExpression parse(String text, FilterDefinition<?> definition) {
+        if (text.length() > MAX_LENGTH) {
+            throw new BadRequestException("filter is longer than " + MAX_LENGTH + " characters");
+        }
+        return new FilterExpression(new Parser(text, definition).parse());
+    }
+
+    public Predicate toPredicate(Root<?> root, CriteriaBuilder cb) {
+        return this.root.toPredicate(root, cb);
+    }
+
+    enum Operator {
+        EQUAL, NOT_EQUAL, GREATER, AT_LEAST, LESS, AT_MOST, CONTAINS, IN, IS_NULL, IS_NOT_NULL
+    }
+
+    private sealed interface Node permits All, Any, Not, Comparison {
+        Predicate toPredicate(Root<?> root, CriteriaBuilder cb);
+    }
+
+    private record All(List<Node> operands) implements Node {
+        @Override
+        public Predicate toPredicate(Root<?> root, CriteriaBuilder cb) {
+            return cb.and(operands.stream().map(node -> node.toPredicate(root, cb)).toArray(Predicate[]::new));
+        }
+    }
+
+    private record Any(List<Node> operands) implements Node {
+        @Override
+        public Predicate toPredicate(Root<?> root, CriteriaBuilder cb) {
+            return cb.or(operands.stream().map(node -> node.toPredicate(root, cb)).toArray(Predicate[]::new));
+        }
+    }
+
+    private record Not(Node operand) implements Node {
+        @Override
+        public Predicate toPredicate(Root<?> root, CriteriaBuilder cb) {
+            return cb.not(operand.toPredicate(root, cb));
+        }
+    }
+
+    private record Comparison(String attribute, Operator operator, Object value) implements Node {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Predicate toPredicate(Root<?> root, CriteriaBuilder cb) {
+            Path path = root.get(attribute);
+            return switch (operator) {
+                case EQUAL -> cb.equal(path, value);
+                case NOT_EQUAL -> cb.notEqual(path, value);
+                case GREATER -> cb.greaterThan(path, (Comparable) value);
+                case AT_LEAST -> cb.greaterThanOrEqualTo(path, (Comparable) value);
+                case LESS -> cb.lessThan(path, (Comparable) value);
+                case AT_MOST -> cb.lessThanOrEqualTo(path, (Comparable) value);
+                case CONTAINS -> cb.like(cb.lower(path), (String) value, FilterField.LIKE_ESCAPE);
+                case IN -> path.in((List<?>) value);
+                case IS_NULL -> cb.isNull(path);
+                case IS_NOT_NULL -> cb.isNotNull(path);
+            };
+        }
+    }
+
+    private enum Kind {
+        WORD, STRING, OPERATOR, OPEN, CLOSE, COMMA, END
+    }
+
+    private record Token(Kind kind, String text, int position) {
+    }
+
+    /**
+     * Recursive descent over {@code or > and > not/parentheses > comparison}.
+     */
+    private static final class Parser {
+
+        private static final String DELIMITERS = "()',=~!<>";
+
+        private final String text;
+        private final FilterDefinition<?> definition;
+        private final List<Token> tokens = new ArrayList<>();
+        private int next;
+
+        Parser(String text, FilterDefinition<?> definition) {
+            this.text = text;
+            this.definition = definition;
+        }
+
+        Node parse() {
+            tokenize();
+            Node node = or(0);
+            Token end = peek();
+            if (end.kind() != Kind.END) {
+                throw error(end, "unexpected '" + end.text() + "'");
+            }
+            return node;
+        }
+
+        private Node or(int depth) {
+            List<Node> operands = new ArrayList<>();
+            operands.add(and(depth));
+            while (keyword("or")) {
+                operands.add(and(depth));
+            }
+            return operands.size() == 1 ? operands.get(0) : new Any(operands);
+        }
+
+        private Node and(int depth) {
+            List<Node> operands = new ArrayList<>();
+            operands.add(unary(depth));
+            while (keyword("and")) {
+                operands.add(unary(depth));
+            }
+            return operands.size() == 1 ? operands.get(0) : new All(operands);
+        }
+
+        private Node unary(int depth) {
+            if (depth > MAX_DEPTH) {
+                throw error(peek(), "nested more than " + MAX_DEPTH + " levels deep");
+            }
+            if (keyword("not")) {
+                return new Not(unary(depth + 1));
+            }
+            if (accept(Kind.OPEN)) {
+                Node node = or(depth + 1);
+                expect(Kind.CLOSE, "')'");
+                return node;
+            }
+            return comparison();
+        }
+
+        private Node comparison() {
+            Token name = expect(Kind.WORD, "an attribute name");
+            String attribute = name.text();
+            Class<?> type = definition.attributeType(attribute);
+            if (type == null) {
+                throw error(name, "unknown attribute '" + attribute + "'");
+            }
+
+            if (keyword("is")) {
+                boolean negated = keyword("not");
+                if (!keyword("null")) {
+                    throw error(peek(), "expected null");
+                }
+                return new Comparison(attribute, negated ? Operator.IS_NOT_NULL : Operator.IS_NULL, null);
+            }
+            if (keyword("in")) {
+                expect(Kind.OPEN, "'('");
+                List<Object> values = new ArrayList<>();
+                do {
+                    values.add(value(attribute, type));
+                } while (accept(Kind.COMMA));
+                Token close = expect(Kind.CLOSE, "')'");
+                if (values.size() > FilterField.MAX_IN_VALUES) {
+                    throw error(close, "at most " + FilterField.MAX_IN_VALUES + " values in a list");
+                }
+                return new Comparison(attribute, Operator.IN, List.copyOf(values));
+            }
+
+            Token symbol = expect(Kind.OPERATOR, "a comparison");
+            Operator operator = switch (symbol.text()) {
+                case "=" -> Operator.EQUAL;
+                case "!=" -> Operator.NOT_EQUAL;
+                case ">" -> Operator.GREATER;
+                case ">=" -> Operator.AT_LEAST;
+                case "<" -> Operator.LESS;
+                case "<=" -> Operator.AT_MOST;
+                default -> Operator.CONTAINS;
+            };
+            if (operator == Operator.CONTAINS) {
+                if (type != String.class) {
+                    throw error(symbol, "~ needs a text attribute, " + attribute + " is not");
+                }
+                String needle = (String) value(attribute, type);
+                return new Comparison(attribute, operator, FilterField.containsPattern(needle));
+            }
+            boolean ordering = operator != Operator.EQUAL && operator != Operator.NOT_EQUAL;
+            if (ordering && !FilterField.isOrdered(type)) {
+                throw error(symbol, symbol.text() + " needs a number or date attribute, " + attribute + " is not");
+            }
+            return new Comparison(attribute, operator, value(attribute, type));
+        }
+
+        private Object value(String attribute, Class<?> type) {
+            Token token = peek();
+            if (token.kind() != Kind.WORD && token.kind() != Kind.STRING) {
+                throw error(token, "expected a value for " + attribute);
+            }
+            next++;
+            try {
+                return FilterField.parse(type, token.text());
+            } catch (IllegalArgumentException | DateTimeException ex) {
+                throw error(token, "invalid value for " + attribute + ": " + token.text());
+            }
+        }
+
+        private boolean keyword(String keyword) {
+            Token token = peek();
+            if (token.kind() == Kind.WORD && token.text().equalsIgnoreCase(keyword)) {
+                next++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean accept(Kind kind) {
+            if (peek().kind() == kind) {
+                next++;
+                return true;
+            }
+            return false;
+        }
+
+        private Token expect(Kind kind, String description) {
+            Token token = peek();
+            if (token.kind() != kind) {
+                throw error(token, "expected " + description);
+            }
+            next++;
+            return token;
+        }
+
+        private Token peek() {
+            return tokens.get(next);
+        }
+
+        private void tokenize() {
+            int i = 0;
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                int start = i;
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '(') {
+                    tokens.add(new Token(Kind.OPEN, "(", start));
+                    i++;
+                } else if (c == ')') {
+                    tokens.add(new Token(Kind.CLOSE, ")", start));
+                    i++;
+                } else if (c == ',') {
+                    tokens.add(new Token(Kind.COMMA, ",", start));
+                    i++;
+                } else if (c == '\'') {
+                    StringBuilder value = new StringBuilder();
+                    i++;
+                    while (true) {
+                        if (i >= text.length()) {
+                            throw error(new Token(Kind.STRING, "", start), "unterminated string");
+                        }
+                        char ch = text.charAt(i++);
+                        if (ch != '\'') {
+                            value.append(ch);
+                        } else if (i < text.length() && text.charAt(i) == '\'') {
+                            value.append('\'');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    }
+                    tokens.add(new Token(Kind.STRING, value.toString(), start));
+                } else if (c == '=' || c == '~') {
+                    tokens.add(new Token(Kind.OPERATOR, String.valueOf(c), start));
+                    i++;
+                } else if (c == '!' || c == '<' || c == '>') {
+                    boolean orEqual = i + 1 < text.length() && text.charAt(i + 1) == '=';
+                    if (c == '!' && !orEqual) {
+                        throw error(new Token(Kind.OPERATOR, "!", start), "expected !=");
+                    }
+                    tokens.add(new Token(Kind.OPERATOR, orEqual ? c + "=" : String.valueOf(c), start));
+                    i += orEqual ? 2 : 1;
+                } else {
+                    while (i < text.length() && !Character.isWhitespace(text.charAt(i))
+                            && DELIMITERS.indexOf(text.charAt(i)) < 0) {
+                        i++;
+                    }
+                    tokens.add(new Token(Kind.WORD, text.substring(start, i), start));
+                }
+            }
+            tokens.add(new Token(Kind.END, "end of filter", text.length()));
+        }
+
+        private static BadRequestException error(Token token, String message) {
+            return new BadRequestException("Invalid filter at " + (token.position() + 1) + ": " + message);
+        }
+    }
+}
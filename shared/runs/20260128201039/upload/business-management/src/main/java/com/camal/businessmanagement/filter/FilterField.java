@@ -0,0 +1,182 @@
+package com.camal.businessmanagement.filter;
+
+import com.camal.businessmanagement.exception.BadRequestException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * One filter query parameter: its name, operator, target attributes and value type.
+ */
+public record FilterField(String param, FilterOperator operator, List<String> attributes, Class<?> type) {
+
+    /** Upper bound on the values of one {@code IN} parameter. */
+    static final int MAX_IN_VALUES = 1000;
+
+    /** Escape character of the {@code LIKE} patterns built by {@link #containsPattern}. */
+    static final char LIKE_ESCAPE = '\\';
+
+    private static final Set<Class<?>> VALUE_TYPES = Set.of(
+            String.class, BigDecimal.class, Long.class, Integer.class, Short.class, Double.class, Float.class,
+            Instant.class, LocalDate.class, LocalDateTime.class, OffsetDateTime.class, Boolean.class, UUID.class);
+
+    public FilterField {
+        attributes = List.copyOf(attributes);
+    }
+
+    /**
+     * Whether parameter values can be converted to {@code type}.
+     */
+    public static boolean supports(Class<?> type) {
+        return VALUE_TYPES.contains(type) || type.isEnum();
+    }
+
+    /**
+     * Whether {@code type} has an order, so range bounds make sense.
+     */
+    static boolean isOrdered(Class<?> type) {
+        return type != String.class && type != Boolean.class && type != UUID.class && Comparable.class.isAssignableFrom(type);
+    }
+
+    /**
+     * Converts the raw parameter into the value bound to the predicate.
+     *
+     * @throws BadRequestException when the value does not parse as the field type
+     */
+    Object convert(String raw) {
+        return switch (operator) {
+            case CONTAINS -> containsPattern(raw);
+            case IN -> {
+                String[] parts = raw.split(",");
+                if (parts.length > MAX_IN_VALUES) {
+                    throw new BadRequestException("At most " + MAX_IN_VALUES + " values for " + param);
+                }
+                List<Object> values = new ArrayList<>(parts.length);
+                for (String part : parts) {
+                    if (!part.isBlank()) {
+                        values.add(parse(part.trim(), raw));
+                    }
+                }
+                yield values;
+            }
+            default -> parse(raw.trim(), raw);
+        };
+    }
+
+    /**
+     * Case-insensitive {@code LIKE} pattern matching {@code needle} anywhere in the text. The
+     * wildcards {@code %} and {@code _} and the escape character itself match literally, so the
+     * pattern has to be used with {@link #LIKE_ESCAPE}.
+     */
+    static String containsPattern(String needle) {
+        String lower = needle.toLowerCase(Locale.ROOT);
+        StringBuilder pattern = new StringBuilder(lower.length() + 8).append('%');
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    private Object parse(String value, String raw) {
+        try {
+            return parse(type, value);
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new BadRequestException("Invalid value for " + param + ": " + raw);
+        }
+    }
+
+    /**
+     * Converts a trimmed text value to {@code type}, one of the {@link #supports supported} types.
+     *
+     * @throws IllegalArgumentException or {@link DateTimeException} when the value does not parse
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object parse(Class<?> type, String value) {
+        if (type == String.class) {
+            return value;
+        }
+        if (type == BigDecimal.class) {
+            return new BigDecimal(value);
+        }
+        if (type == Long.class) {
+            return Long.valueOf(value);
+        }
+        if (type == Integer.class) {
+            return Integer.valueOf(value);
+        }
+        if (type == Short.class) {
+            return Short.valueOf(value);
+        }
+        if (type == Double.class) {
+            return Double.valueOf(value);
+        }
+        if (type == Float.class) {
+            return Float.valueOf(value);
+        }
+        if (type == Instant.class) {
+            return Instant.parse(value);
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.parse(value);
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        }
+        if (type == OffsetDateTime.class) {
+            return OffsetDateTime.parse(value);
+        }
+        if (type == UUID.class) {
+            return UUID.fromString(value);
+        }
+        if (type == Boolean.class) {
+            if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+                return Boolean.valueOf(value);
+            }
+            throw new IllegalArgumentException(value);
+        }
+        if (type.isEnum()) {
+            return Enum.valueOf((Class<Enum>) type, value);
+        }
+        return value;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Predicate toPredicate(Root<?> root, CriteriaBuilder cb, Object value) {
+        return switch (operator) {
+            case CONTAINS -> {
+                if (attributes.size() == 1) {
+                    yield cb.like(cb.lower(root.get(attributes.get(0))), (String) value, LIKE_ESCAPE);
+                }
+                Predicate[] any = new Predicate[attributes.size()];
+                for (int i = 0; i < any.length; i++) {
+                    any[i] = cb.like(cb.lower(root.get(attributes.get(i))), (String) value, LIKE_ESCAPE);
+                }
+                yield cb.or(any);
+            }
+            case EQUAL -> cb.equal(root.get(attributes.get(0)), value);
+            case AT_LEAST -> cb.greaterThanOrEqualTo(root.<Comparable>get(attributes.get(0)), (Comparable) value);
+            case AT_MOST -> cb.lessThanOrEqualTo(root.<Comparable>get(attributes.get(0)), (Comparable) value);
+            case IN -> {
+                List<?> values = (List<?>) value;
+                // A list of only commas leaves nothing to match
+                yield values.isEmpty() ? cb.disjunction() : root.get(attributes.get(0)).in(values);
+            }
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package com.camal.businessmanagement.filter;
+
+/**
+ * How a filter parameter is compared with its attributes.
+ */
+public enum FilterOperator {
+    /** Case-insensitive substring match; with several attributes, any of them may match. */
+    CONTAINS,
+    EQUAL,
+    AT_LEAST,
+    AT_MOST,
+    /** Equal to one of a comma-separated list of values. */
+    IN
+}
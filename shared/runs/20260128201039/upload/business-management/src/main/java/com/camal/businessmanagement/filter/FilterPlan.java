@@ -0,0 +1,65 @@
+package com.camal.businessmanagement.filter;
+
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The predicates of one query shape, resolved once: binding a request only converts its
+ * parameter values.
+ * <p>
+ * Every specification bound from the same plan builds a structurally identical criteria tree,
+ * with values as bind parameters, so Hibernate's criteria plan cache
+ * ({@code hibernate.criteria.plan_cache_enabled}) translates each shape to SQL once.
+ *
+ * @param <T> entity type
+ */
+public final class FilterPlan<T> {
+
+    private final String softDeleteAttribute;
+    private final FilterField[] clauses;
+
+    private FilterPlan(String softDeleteAttribute, FilterField[] clauses) {
+        this.softDeleteAttribute = softDeleteAttribute;
+        this.clauses = clauses;
+    }
+
+    static <T> FilterPlan<T> compile(FilterDefinition<T> definition, long shape) {
+        List<FilterField> clauses = new ArrayList<>(Long.bitCount(shape));
+        List<FilterField> fields = definition.fields();
+        for (int i = 0; i < fields.size(); i++) {
+            if ((shape & (1L << i)) != 0) {
+                clauses.add(fields.get(i));
+            }
+        }
+        return new FilterPlan<>(definition.softDeleteAttribute(), clauses.toArray(FilterField[]::new));
+    }
+
+    /**
+     * Number of filter predicates, without the soft-delete one.
+     */
+    public int size() {
+        return clauses.length;
+    }
+
+    public Specification<T> bind(Map<String, String> params) {
+        Object[] values = new Object[clauses.length];
+        for (int i = 0; i < clauses.length; i++) {
+            values[i] = clauses[i].convert(params.get(clauses[i].param()));
+        }
+        return (root, query, cb) -> {
+            int offset = softDeleteAttribute == null ? 0 : 1;
+            Predicate[] predicates = new Predicate[clauses.length + offset];
+            if (softDeleteAttribute != null) {
+                predicates[0] = cb.isFalse(root.get(softDeleteAttribute));
+            }
+            for (int i = 0; i < clauses.length; i++) {
+                predicates[i + offset] = clauses[i].toPredicate(root, cb, values[i]);
+            }
+            return cb.and(predicates);
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package com.camal.businessmanagement.filter;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filter definitions of every mapped entity, derived once from the JPA metamodel.
+ * <p>
+ * Each basic attribute gets, in field declaration order:
+ * <ul>
+ *     <li>text: {@code attr} (case-insensitive substring) and {@code attrIn} (exact values)</li>
+ *     <li>numbers and timestamps: {@code attr}, {@code minAttr}/{@code maxAttr} (inclusive) and {@code attrIn}</li>
+ *     <li>booleans: {@code attr}; other value types: {@code attr} and {@code attrIn}</li>
+ * </ul>
+ * Text attributes marked {@link Searchable} are searched by {@code q}. A boolean
+ * {@code deleted} attribute marks soft-deleted rows, which are always excluded and cannot be
+ * filtered on. Every basic attribute is sortable, and every filterable one can be used in
+ * {@link FilterExpression filter expressions}.
+ */
+@Slf4j
+@Component
+public class FilterRegistry {
+
+    static final String SEARCH_PARAM = "q";
+    static final String SOFT_DELETE_ATTRIBUTE = "deleted";
+
+    private final Map<Class<?>, FilterDefinition<?>> definitions = new HashMap<>();
+
+    public FilterRegistry(EntityManagerFactory entityManagerFactory) {
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            FilterDefinition<?> definition = define(entity);
+            definitions.put(entity.getJavaType(), definition);
+            log.debug("Filters of {}: {}", entity.getName(),
+                    definition.fields().stream().map(FilterField::param).toList());
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException when {@code entityType} is not a mapped entity
+     */
+    @SuppressWarnings("unchecked")
+    public <T> FilterDefinition<T> definition(Class<T> entityType) {
+        FilterDefinition<T> definition = (FilterDefinition<T>) definitions.get(entityType);
+        if (definition == null) {
+            throw new IllegalArgumentException("Not an entity: " + entityType.getName());
+        }
+        return definition;
+    }
+
+    private static <T> FilterDefinition<T> define(EntityType<T> entity) {
+        FilterDefinition.Builder<T> builder = FilterDefinition.of(entity.getJavaType());
+        List<SingularAttribute<? super T, ?>> attributes = new ArrayList<>();
+        List<String> searchable = new ArrayList<>();
+        for (Field field : declaredFields(entity.getJavaType())) {
+            SingularAttribute<? super T, ?> attribute = basicAttribute(entity, field);
+            if (attribute == null) {
+                continue;
+            }
+            Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(attribute.getJavaType());
+            if (field.getName().equals(SOFT_DELETE_ATTRIBUTE) && type == Boolean.class) {
+                builder.softDelete(SOFT_DELETE_ATTRIBUTE);
+                continue;
+            }
+            builder.sortable(attribute.getName());
+            if (!FilterField.supports(type)) {
+                continue;
+            }
+            attributes.add(attribute);
+            builder.attribute(attribute.getName(), type);
+            if (type == String.class && field.isAnnotationPresent(Searchable.class)) {
+                searchable.add(attribute.getName());
+            }
+        }
+
+        if (!searchable.isEmpty()) {
+            builder.search(SEARCH_PARAM, searchable.toArray(String[]::new));
+        }
+        for (SingularAttribute<? super T, ?> attribute : attributes) {
+            String name = attribute.getName();
+            Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(attribute.getJavaType());
+            if (type == String.class) {
+                builder.contains(name, name).in(name, type);
+            } else if (FilterField.isOrdered(type)) {
+                builder.range(name, type).in(name, type);
+            } else if (type == Boolean.class) {
+                builder.equal(name, name, type);
+            } else {
+                builder.equal(name, name, type).in(name, type);
+            }
+        }
+        return builder.build();
+    }
+
+    private static <T> SingularAttribute<? super T, ?> basicAttribute(EntityType<T> entity, Field field) {
+        if (Modifier.isStatic(field.getModifiers())) {
+            return null;
+        }
+        Attribute<? super T, ?> attribute;
+        try {
+            attribute = entity.getAttribute(field.getName());
+        } catch (IllegalArgumentException ex) {
+            // Transient or otherwise unmapped field
+            return null;
+        }
+        if (attribute instanceof SingularAttribute<? super T, ?> singular
+                && attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC) {
+            return singular;
+        }
+        return null;
+    }
+
+    /** Fields of the class and its superclasses, superclass fields first. */
+    private static List<Field> declaredFields(Class<?> type) {
+        Deque<Class<?>> hierarchy = new ArrayDeque<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.push(c);
+        }
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c : hierarchy) {
+            fields.addAll(List.of(c.getDeclaredFields()));
+        }
+        return fields;
+    }
+}
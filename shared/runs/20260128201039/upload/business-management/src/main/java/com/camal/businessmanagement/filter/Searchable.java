@@ -0,0 +1,17 @@
+package com.camal.businessmanagement.filter;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a text attribute searched by the {@code q} list parameter and ranked by
+ * {@code sort=relevance}. Entities without searchable attributes have no {@code q}.
+ */
+@Documented
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Searchable {
+}
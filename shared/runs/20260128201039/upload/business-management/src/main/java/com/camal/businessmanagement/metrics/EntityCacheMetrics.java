@@ -0,0 +1,49 @@
+package com.camal.businessmanagement.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.List;
+
+/**
+ * Publishes the second-level cache regions ({@code entity-cache.conf}) as {@code cache.*} meters
+ * tagged with the region name, so their hit and miss rates show up on {@code /actuator/prometheus}
+ * next to the Caffeine caches of the application. The counts come from the JCache statistics
+ * MBeans, which is why the regions keep {@code monitoring.statistics} on.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheMetrics implements MeterBinder {
+
+    /** Regions of the cached entities. */
+    static final List<String> REGIONS = List.of("products", "allops", "guards", "tests");
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache()
+                .getRegionFactory();
+        if (!(regionFactory instanceof JCacheRegionFactory jcache)) {
+            // Second-level cache disabled or not backed by JCache
+            return;
+        }
+        CacheManager cacheManager = jcache.getCacheManager();
+        for (String region : REGIONS) {
+            Cache<Object, Object> cache = cacheManager.getCache(region);
+            if (cache != null) {
+                JCacheMetrics.monitor(registry, cache);
+            }
+        }
+    }
+}
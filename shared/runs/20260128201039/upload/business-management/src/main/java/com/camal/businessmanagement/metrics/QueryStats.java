@@ -0,0 +1,98 @@
+package com.camal.businessmanagement.metrics;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDBC statements, rows and database time of the request running on the current thread.
+ * <p>
+ * Opened and closed around each MVC request by {@link RequestQueryMetricsInterceptor} and
+ * fed by {@link QueryStatsDataSourcePostProcessor}. Statements run outside a request
+ * (startup, schedulers, streaming exports on an async thread) are not counted.
+ */
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Integer> executions = new HashMap<>();
+    private int statements;
+    private long rows;
+    private long elapsedNanos;
+
+    private QueryStats() {
+    }
+
+    public static QueryStats start() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * @return stats of the current request, or null outside a request
+     */
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Detaches the stats from the current thread.
+     *
+     * @return the stats that were open, or null
+     */
+    public static QueryStats stop() {
+        QueryStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    /**
+     * Records one round trip (a single statement or a JDBC batch).
+     *
+     * @param sql           statement text, used to spot the same statement run in a loop
+     * @param elapsedNanos execution time
+     * @param rowsAffected update count, 0 for queries (fetched rows are counted by {@link #row()})
+     */
+    void statement(String sql, long elapsedNanos, long rowsAffected) {
+        executions.merge(sql, 1, Integer::sum);
+        statements++;
+        this.elapsedNanos += elapsedNanos;
+        rows += rowsAffected;
+    }
+
+    void row() {
+        rows++;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    /**
+     * Rows read through result sets plus rows reported by update counts. Rows read are only
+     * counted with {@code app.query-stats.rows} on.
+     */
+    public long rows() {
+        return rows;
+    }
+
+    public long elapsed(TimeUnit unit) {
+        return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Statements executed at least {@code threshold} times with the same SQL text (only the
+     * bind values differ): the signature of an N+1 select or of row-by-row writes.
+     */
+    public Map<String, Integer> repeated(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        executions.forEach((sql, count) -> {
+            if (count >= threshold) {
+                repeated.put(sql, count);
+            }
+        });
+        return repeated;
+    }
+}
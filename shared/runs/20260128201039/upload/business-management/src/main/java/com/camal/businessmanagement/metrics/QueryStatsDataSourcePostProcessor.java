@@ -0,0 +1,111 @@
+package com.camal.businessmanagement.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Wraps the application {@link DataSource} in a datasource-proxy that reports every executed
+ * statement and its update count to the current {@link QueryStats}.
+ * Covers Hibernate and the plain JDBC paths ({@code SoftDeletes}, {@code TableStatistics}) alike.
+ * <p>
+ * Counting fetched rows needs every {@code ResultSet} wrapped in a reflective proxy as well,
+ * which adds a proxied call to each {@code next()} and column read. That is only done with
+ * {@code app.query-stats.rows} on (dev and test profiles). Statement counts and times need
+ * only the statement proxy and are always collected.
+ * <p>
+ * Only the {@code dataSource} bean is wrapped: with read replicas the pools behind it are beans
+ * too, and wrapping them as well would count every statement twice.
+ */
+@Component
+public class QueryStatsDataSourcePostProcessor implements BeanPostProcessor {
+
+    private static final String DATA_SOURCE = "dataSource";
+
+    private final boolean countRows;
+
+    public QueryStatsDataSourcePostProcessor(@Value("${app.query-stats.rows:false}") boolean countRows) {
+        this.countRows = countRows;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || !DATA_SOURCE.equals(beanName)) {
+            return bean;
+        }
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                .name(beanName)
+                .listener(new StatementListener());
+        if (countRows) {
+            builder.methodListener(new RowListener()).proxyResultSet();
+        }
+        return builder.build();
+    }
+
+    private static final class StatementListener implements QueryExecutionListener {
+
+        /** Custom value holding the {@link System#nanoTime()} before the statement ran. */
+        private static final String START = StatementListener.class.getName() + ".start";
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (QueryStats.current() != null) {
+                execInfo.addCustomValue(START, System.nanoTime());
+            }
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            QueryStats stats = QueryStats.current();
+            Long start = execInfo.getCustomValue(START, Long.class);
+            if (stats != null && start != null) {
+                // getElapsedTime() is whole milliseconds, which rounds most statements down to 0
+                String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+                stats.statement(sql, System.nanoTime() - start, updateCount(execInfo.getResult()));
+            }
+        }
+
+        private static long updateCount(Object result) {
+            if (result instanceof Integer count) {
+                return Math.max(count, 0);
+            }
+            if (result instanceof int[] counts) {
+                long total = 0;
+                for (int count : counts) {
+                    total += Math.max(count, 0);
+                }
+                return total;
+            }
+            return 0;
+        }
+    }
+
+    private static final class RowListener implements MethodExecutionListener {
+
+        @Override
+        public void beforeMethod(MethodExecutionContext executionContext) {
+        }
+
+        @Override
+        public void afterMethod(MethodExecutionContext executionContext) {
+            if (executionContext.getTarget() instanceof ResultSet
+                    && "next".equals(executionContext.getMethod().getName())
+                    && Boolean.TRUE.equals(executionContext.getResult())) {
+                QueryStats stats = QueryStats.current();
+                if (stats != null) {
+                    stats.row();
+                }
+            }
+        }
+    }
+}
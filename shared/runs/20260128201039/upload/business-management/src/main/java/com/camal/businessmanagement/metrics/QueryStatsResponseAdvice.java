@@ -0,0 +1,48 @@
+package com.camal.businessmanagement.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds {@code X-Query-Count} and {@code X-Query-Time} (milliseconds) to API responses when
+ * {@code app.query-stats.headers} is on (dev and test profiles). The headers are set just
+ * before the body is written, after the service call and its transaction have finished.
+ * Streaming exports are written asynchronously and carry no headers.
+ */
+@ControllerAdvice
+public class QueryStatsResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String QUERY_COUNT = "X-Query-Count";
+    public static final String QUERY_TIME = "X-Query-Time";
+
+    private final boolean enabled;
+
+    public QueryStatsResponseAdvice(@Value("${app.query-stats.headers:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return enabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        QueryStats stats = QueryStats.current();
+        if (stats != null) {
+            response.getHeaders().set(QUERY_COUNT, String.valueOf(stats.statements()));
+            response.getHeaders().set(QUERY_TIME, String.valueOf(stats.elapsed(TimeUnit.MILLISECONDS)));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,102 @@
+package com.camal.businessmanagement.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens {@link QueryStats} for each request and records, per method and URI pattern, the
+ * number of JDBC statements ({@code app.request.queries}) and database time
+ * ({@code app.request.db}), plus rows ({@code app.request.rows}) with {@code app.query-stats.rows} on.
+ * <p>
+ * Requests over the statement budget ({@code app.query-stats.budget}) and statements repeated
+ * {@code app.query-stats.repeat-threshold} times within one request (a likely N+1) are logged
+ * as warnings.
+ */
+@Slf4j
+@Component
+public class RequestQueryMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry registry;
+    private final int budget;
+    private final int repeatThreshold;
+    private final boolean countRows;
+
+    public RequestQueryMetricsInterceptor(MeterRegistry registry,
+                                          @Value("${app.query-stats.budget:20}") int budget,
+                                          @Value("${app.query-stats.repeat-threshold:5}") int repeatThreshold,
+                                          @Value("${app.query-stats.rows:false}") boolean countRows) {
+        this.registry = registry;
+        this.budget = budget;
+        this.repeatThreshold = repeatThreshold;
+        this.countRows = countRows;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryStats.start();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The response is completed on another thread; don't leak the stats to the next request
+        QueryStats.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryStats stats = QueryStats.stop();
+        if (stats == null) {
+            return;
+        }
+        String method = request.getMethod();
+        String uri = uri(request);
+        DistributionSummary.builder("app.request.queries")
+                .description("JDBC statements executed per request")
+                .baseUnit("statements")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(registry)
+                .record(stats.statements());
+        if (countRows) {
+            DistributionSummary.builder("app.request.rows")
+                    .description("Rows fetched or updated per request")
+                    .baseUnit("rows")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .register(registry)
+                    .record(stats.rows());
+        }
+        Timer.builder("app.request.db")
+                .description("Time spent executing JDBC statements per request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(registry)
+                .record(stats.elapsed(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+
+        if (stats.statements() > budget) {
+            log.warn("{} {} ran {} statements in {} ms (budget {})",
+                    method, uri, stats.statements(), stats.elapsed(TimeUnit.MILLISECONDS), budget);
+        }
+        for (Map.Entry<String, Integer> repeated : stats.repeated(repeatThreshold).entrySet()) {
+            log.warn("{} {} ran the same statement {} times (possible N+1): {}",
+                    method, uri, repeated.getValue(), repeated.getKey());
+        }
+    }
+
+    static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
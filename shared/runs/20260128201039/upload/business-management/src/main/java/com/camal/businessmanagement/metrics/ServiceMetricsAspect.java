@@ -0,0 +1,85 @@
+package com.camal.businessmanagement.metrics;
+
+import com.camal.businessmanagement.exception.BadRequestException;
+import com.camal.businessmanagement.exception.ConflictException;
+import com.camal.businessmanagement.exception.NotFoundException;
+import com.camal.businessmanagement.exception.PreconditionFailedException;
+import com.camal.businessmanagement.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Times every public method of the entity services as {@code app.service}, tagged with the
+ * entity ({@code product}, {@code allop}, ...), the operation (method name) and the outcome.
+ * <p>
+ * Runs outside the transaction advice, so commit time and failures raised at commit
+ * (optimistic locking, constraint violations) are part of the measurement.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    private final MeterRegistry registry;
+
+    @Around("execution(public * com.camal.businessmanagement.service.*Service.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            outcome = outcome(ex);
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder("app.service")
+                    .description("Service operations by entity and outcome")
+                    .tag("entity", entity(joinPoint))
+                    .tag("operation", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+    }
+
+    private static String entity(ProceedingJoinPoint joinPoint) {
+        String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        return service.substring(0, service.length() - "Service".length()).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Same classification as {@code GlobalExceptionHandler} applies to the response status.
+     */
+    static String outcome(Throwable ex) {
+        if (ex instanceof NotFoundException) {
+            return "not_found";
+        }
+        if (ex instanceof BadRequestException || ex instanceof ConstraintViolationException) {
+            return "bad_request";
+        }
+        if (ex instanceof ConflictException
+                || ex instanceof OptimisticLockingFailureException
+                || ex instanceof DataIntegrityViolationException) {
+            return "conflict";
+        }
+        if (ex instanceof PreconditionFailedException) {
+            return "precondition_failed";
+        }
+        if (ex instanceof ServiceUnavailableException) {
+            return "unavailable";
+        }
+        return "error";
+    }
+}
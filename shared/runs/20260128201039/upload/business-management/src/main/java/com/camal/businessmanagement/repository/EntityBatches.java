@@ -0,0 +1,32 @@
+package com.camal.businessmanagement.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.OrderingMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Loads entities by id in one round trip.
+ * <p>
+ * Ids already in the persistence context or the second-level cache are served from there;
+ * the rest are fetched with a single {@code IN} query (an array parameter on PostgreSQL).
+ */
+@Component
+public class EntityBatches {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * @return one element per id, in the same order, {@code null} where there is no row
+     */
+    public <T> List<T> findAll(Class<T> type, List<?> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return em.unwrap(Session.class).findMultiple(type, ids, OrderingMode.ORDERED);
+    }
+}
@@ -0,0 +1,84 @@
+package com.camal.businessmanagement.repository;
+
+import com.camal.businessmanagement.datasource.ExportConnectionPool;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.stream.Stream;
+
+/**
+ * Forward-only, read-only result streams for exports.
+ * <p>
+ * Each stream runs in a stateless session on a connection of its own from the
+ * {@link ExportConnectionPool}, not on the application pool or a Spring transaction, so a long
+ * download neither holds an application connection nor trips its leak detection. Rows are
+ * fetched {@code app.export.fetch-size} at a time (a server-side cursor on PostgreSQL), skip
+ * the second-level cache and are never attached to a persistence context, so memory does not
+ * grow with the number of rows. The stream must be closed, which ends the read-only
+ * transaction and returns the connection.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityStreams {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ExportConnectionPool exportConnectionPool;
+
+    @Value("${app.export.fetch-size:500}")
+    private int fetchSize;
+
+    public <T> Stream<T> stream(Class<T> type, Specification<T> spec, Sort sort) {
+        Connection connection;
+        try {
+            connection = exportConnectionPool.getConnection();
+        } catch (SQLException ex) {
+            throw new DataAccessResourceFailureException("Could not get an export connection", ex);
+        }
+        StatelessSession session = entityManagerFactory.unwrap(SessionFactory.class).openStatelessSession(connection);
+        try {
+            CriteriaBuilder cb = session.getCriteriaBuilder();
+            CriteriaQuery<T> query = cb.createQuery(type);
+            Root<T> root = query.from(type);
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+            if (sort.isSorted()) {
+                query.orderBy(QueryUtils.toOrders(sort, root, cb));
+            }
+            return session.createSelectionQuery(query)
+                    .setFetchSize(fetchSize)
+                    .setCacheMode(CacheMode.IGNORE)
+                    .getResultStream()
+                    .onClose(() -> close(session, connection));
+        } catch (RuntimeException ex) {
+            close(session, connection);
+            throw ex;
+        }
+    }
+
+    private static void close(StatelessSession session, Connection connection) {
+        try (connection) {
+            session.close();
+            // Nothing was written; ends the transaction the cursor ran in
+            connection.rollback();
+        } catch (SQLException ex) {
+            throw new DataAccessResourceFailureException("Could not release an export connection", ex);
+        }
+    }
+}
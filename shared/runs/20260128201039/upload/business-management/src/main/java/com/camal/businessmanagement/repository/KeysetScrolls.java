@@ -0,0 +1,124 @@
+package com.camal.businessmanagement.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.PropertyAccessor;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset (seek) pages that also work on nullable sort keys.
+ * <p>
+ * Spring Data's keyset scrolling compares keys with {@code >} and {@code <}, so a row with a
+ * null key is either never reached or seen again on every page. Here a null sorts as the
+ * largest value on every database ({@code NULLS LAST} ascending, {@code NULLS FIRST}
+ * descending, as PostgreSQL does by default), the seek predicate treats it the same way, and
+ * {@code id} is appended as the tie-breaker. One query per page, one row more than the page
+ * size to tell whether there is a next one.
+ */
+@Component
+public class KeysetScrolls {
+
+    private static final String ID = "id";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * @param position keys of the last row of the previous page, or the initial position
+     * @param sort     sort requested by the client
+     */
+    public <T> Window<T> scroll(Class<T> type, Specification<T> spec, KeysetScrollPosition position, Sort sort, int size) {
+        Sort keysetSort = keysetSort(sort);
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        List<Predicate> where = new ArrayList<>(2);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            where.add(predicate);
+        }
+        if (!position.isInitial()) {
+            where.add(after(root, cb, keysetSort, position.getKeys()));
+        }
+        query.where(where.toArray(Predicate[]::new));
+        query.orderBy(QueryUtils.toOrders(keysetSort, root, cb));
+
+        List<T> rows = em.createQuery(query).setMaxResults(size + 1).getResultList();
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        return Window.from(content, index -> positionOf(content.get(index), keysetSort), hasNext);
+    }
+
+    private static Sort keysetSort(Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        boolean hasId = false;
+        for (Sort.Order order : sort) {
+            orders.add(order.isAscending() ? order.nullsLast() : order.nullsFirst());
+            hasId |= order.getProperty().equals(ID);
+        }
+        if (!hasId) {
+            orders.add(Sort.Order.asc(ID));
+        }
+        return Sort.by(orders);
+    }
+
+    /**
+     * {@code (k1 after v1) or (k1 = v1 and k2 after v2) or ...}, with null as the largest value.
+     */
+    private static Predicate after(Root<?> root, CriteriaBuilder cb, Sort sort, Map<String, Object> keys) {
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalSoFar = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Expression<?> key = root.get(order.getProperty());
+            Object value = keys.get(order.getProperty());
+            Predicate beyond = beyond(cb, key, value, order.isAscending());
+            if (beyond != null) {
+                List<Predicate> alternative = new ArrayList<>(equalSoFar);
+                alternative.add(beyond);
+                alternatives.add(cb.and(alternative.toArray(Predicate[]::new)));
+            }
+            equalSoFar.add(value == null ? cb.isNull(key) : cb.equal(key, value));
+        }
+        return cb.or(alternatives.toArray(Predicate[]::new));
+    }
+
+    /**
+     * Rows sorting strictly after {@code value}, or null when there are none.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder cb, Expression key, Object value, boolean ascending) {
+        if (value == null) {
+            return ascending ? null : cb.isNotNull(key);
+        }
+        Comparable comparable = (Comparable) value;
+        return ascending
+                ? cb.or(cb.greaterThan(key, comparable), cb.isNull(key))
+                : cb.lessThan(key, comparable);
+    }
+
+    private static KeysetScrollPosition positionOf(Object row, Sort sort) {
+        PropertyAccessor accessor = PropertyAccessorFactory.forDirectFieldAccess(row);
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            keys.put(order.getProperty(), accessor.getPropertyValue(order.getProperty()));
+        }
+        return ScrollPosition.forward(keys);
+    }
+}
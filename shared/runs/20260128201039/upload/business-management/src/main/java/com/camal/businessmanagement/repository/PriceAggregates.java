@@ -0,0 +1,165 @@
+package com.camal.businessmanagement.repository;
+
+import com.camal.businessmanagement.common.PriceStats;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Nulls;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.Session;
+import org.hibernate.query.SortDirection;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaPredicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Price aggregates of the rows matching a specification, computed by the database in at most
+ * two statements however many rows match.
+ * <p>
+ * The first selects the count, the sums and extremes of both prices and of the margin, and the
+ * margin percentiles ({@code percentile_cont ... within group}). The second, run only when some
+ * row has a sell price, counts every histogram bucket between the minimum and maximum of the
+ * first with one filtered {@code count} per bucket. Works for any entity with
+ * {@code sellPrice} and {@code boughtPrice} attributes.
+ */
+@Component
+public class PriceAggregates {
+
+    static final String SELL_PRICE = "sellPrice";
+    static final String BOUGHT_PRICE = "boughtPrice";
+
+    /** Scale of the price columns; averages, percentiles and bucket bounds are rounded to it. */
+    static final int SCALE = 4;
+
+    private static final double[] PERCENTILES = {0.25, 0.5, 0.75, 0.9, 0.99};
+
+    /** Selections per {@link PriceStats.Summary}: count, sum, min, max. */
+    private static final int SUMMARY_WIDTH = 4;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * @param buckets number of sell price histogram buckets; one when every row has the same price
+     */
+    public <T> PriceStats aggregate(Class<T> type, Specification<T> spec, int buckets) {
+        HibernateCriteriaBuilder cb = em.unwrap(Session.class).getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+        Expression<BigDecimal> sell = root.get(SELL_PRICE);
+        Expression<BigDecimal> bought = root.get(BOUGHT_PRICE);
+        Expression<BigDecimal> margin = cb.diff(sell, bought);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(cb.count(root));
+        for (Expression<BigDecimal> value : List.of(sell, bought, margin)) {
+            selections.add(cb.count(value));
+            selections.add(cb.sum(value));
+            selections.add(cb.min(value));
+            selections.add(cb.max(value));
+        }
+        for (double fraction : PERCENTILES) {
+            selections.add(cb.percentileCont(cb.literal(fraction), margin, SortDirection.ASCENDING, Nulls.NONE));
+        }
+        query.select(cb.tuple(selections));
+        where(query, root, cb, spec);
+        Tuple row = em.createQuery(query).getSingleResult();
+
+        PriceStats.Summary sellPrice = summary(row, 1);
+        PriceStats.Summary boughtPrice = summary(row, 1 + SUMMARY_WIDTH);
+        PriceStats.Summary marginSummary = summary(row, 1 + 2 * SUMMARY_WIDTH);
+        Map<String, BigDecimal> percentiles = new LinkedHashMap<>();
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            percentiles.put(percentileName(PERCENTILES[i]), decimal(row.get(1 + 3 * SUMMARY_WIDTH + i)));
+        }
+        return PriceStats.builder()
+                .count(row.get(0, Long.class))
+                .sellPrice(sellPrice)
+                .boughtPrice(boughtPrice)
+                .margin(marginSummary)
+                .marginPercentiles(percentiles)
+                .sellPriceHistogram(sellPrice.getCount() == 0
+                        ? List.of()
+                        : histogram(cb, type, spec, sellPrice.getMin(), sellPrice.getMax(), buckets))
+                .build();
+    }
+
+    private <T> List<PriceStats.Bucket> histogram(HibernateCriteriaBuilder cb, Class<T> type, Specification<T> spec,
+                                                  BigDecimal min, BigDecimal max, int buckets) {
+        int count = min.compareTo(max) == 0 ? 1 : buckets;
+        BigDecimal span = max.subtract(min);
+        BigDecimal[] bounds = new BigDecimal[count + 1];
+        for (int i = 0; i < count; i++) {
+            bounds[i] = min.add(span.multiply(BigDecimal.valueOf(i))
+                    .divide(BigDecimal.valueOf(count), SCALE, RoundingMode.HALF_EVEN));
+        }
+        bounds[count] = max;
+
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+        Expression<BigDecimal> sell = root.get(SELL_PRICE);
+        List<Selection<?>> selections = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Half-open buckets, except the last one, which also holds the maximum
+            JpaPredicate upper = i == count - 1
+                    ? cb.lessThanOrEqualTo(sell, bounds[i + 1])
+                    : cb.lessThan(sell, bounds[i + 1]);
+            selections.add(cb.count(sell, cb.and(cb.greaterThanOrEqualTo(sell, bounds[i]), upper)));
+        }
+        query.select(cb.tuple(selections));
+        where(query, root, cb, spec);
+        Tuple row = em.createQuery(query).getSingleResult();
+
+        List<PriceStats.Bucket> histogram = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            histogram.add(new PriceStats.Bucket(bounds[i], bounds[i + 1], row.get(i, Long.class)));
+        }
+        return histogram;
+    }
+
+    private static <T> void where(CriteriaQuery<Tuple> query, Root<T> root, HibernateCriteriaBuilder cb,
+                                  Specification<T> spec) {
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    private static PriceStats.Summary summary(Tuple row, int offset) {
+        long count = row.get(offset, Long.class);
+        BigDecimal sum = decimal(row.get(offset + 1));
+        return PriceStats.Summary.builder()
+                .count(count)
+                .sum(sum)
+                // From the exact sum rather than avg(), which Hibernate types as a double
+                .avg(count == 0 ? null : sum.divide(BigDecimal.valueOf(count), SCALE, RoundingMode.HALF_EVEN))
+                .min(decimal(row.get(offset + 2)))
+                .max(decimal(row.get(offset + 3)))
+                .build();
+    }
+
+    private static BigDecimal decimal(Object value) {
+        if (value == null) {
+            return null;
+        }
+        BigDecimal decimal = value instanceof BigDecimal d ? d : new BigDecimal(value.toString());
+        return decimal.setScale(SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    private static String percentileName(double fraction) {
+        return String.format(Locale.ROOT, "p%d", Math.round(fraction * 100));
+    }
+}
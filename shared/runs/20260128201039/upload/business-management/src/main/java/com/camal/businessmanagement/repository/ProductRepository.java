@@ -4,6 +4,16 @@ package com.camal.businessmanagement.repository;
 import com.camal.businessmanagement.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+
+    /**
+     * Version of a live row, without loading the entity.
+     */
+    @Query("select p.version from Product p where p.id = :id and p.deleted = false")
+    Optional<Long> findLiveVersion(@Param("id") Long id);
 }
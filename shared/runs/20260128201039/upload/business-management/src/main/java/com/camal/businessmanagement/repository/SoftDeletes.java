@@ -0,0 +1,80 @@
+package com.camal.businessmanagement.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Table;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Soft delete as a single {@code UPDATE ... WHERE id = ? AND deleted = false [AND version = ?]},
+ * without loading the entity. Deleting a row that is already deleted succeeds without touching
+ * it again, unless the caller expected a version the row no longer has.
+ * <p>
+ * The statement goes through JDBC in the current transaction rather than a JPQL bulk update:
+ * for JPQL Hibernate clears the entity's whole second-level cache region, here only the
+ * deleted row is evicted (again after completion, so a concurrent read cannot put the old
+ * state back). Entity listeners do not run, so the auditing columns are set here.
+ */
+@Component
+@RequiredArgsConstructor
+public class SoftDeletes {
+
+    public enum Result {
+        DELETED, NOT_FOUND, VERSION_MISMATCH
+    }
+
+    private record RowState(boolean deleted, Long version) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditorAware<String> auditorProvider;
+
+    /**
+     * @param expectedVersion version the client last saw, or {@code null} to delete unconditionally
+     */
+    public Result delete(Class<?> entityType, Long id, Long expectedVersion) {
+        String table = entityType.getAnnotation(Table.class).name();
+        String sql = "update " + table
+                + " set deleted = true, version = version + 1, updated_at = ?, updated_by = ? where id = ? and deleted = false";
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        String auditor = auditorProvider.getCurrentAuditor().orElse(null);
+
+        int rows = expectedVersion == null
+                ? jdbcTemplate.update(sql, now, auditor, id)
+                : jdbcTemplate.update(sql + " and version = ?", now, auditor, id, expectedVersion);
+        if (rows == 0) {
+            // Only on the failure path: tell a missing row from a deleted one or a stale version
+            RowState state = jdbcTemplate.query("select deleted, version from " + table + " where id = ?",
+                    rs -> rs.next() ? new RowState(rs.getBoolean(1), rs.getObject(2, Long.class)) : null, id);
+            if (state == null) {
+                return Result.NOT_FOUND;
+            }
+            return state.deleted() && (expectedVersion == null || expectedVersion.equals(state.version()))
+                    ? Result.DELETED
+                    : Result.VERSION_MISMATCH;
+        }
+
+        evict(entityType, id);
+        return Result.DELETED;
+    }
+
+    private void evict(Class<?> entityType, Long id) {
+        entityManagerFactory.getCache().evict(entityType, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entityManagerFactory.getCache().evict(entityType, id);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.camal.businessmanagement.repository;
+
+import jakarta.persistence.Table;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.OptionalLong;
+
+/**
+ * Live row count estimates from the PostgreSQL planner statistics.
+ * <p>
+ * The table's row count ({@code pg_class.reltuples}) is scaled by the share of rows with
+ * {@code deleted = false} from the column statistics ({@code pg_stats}), so soft-deleted rows
+ * are not counted; a table without a {@code deleted} column is taken as it is. Reading the
+ * statistics is a catalog lookup, so it costs the same for any table size. The figure is as
+ * fresh as the last {@code ANALYZE}/autovacuum. On other databases (H2 in tests) no estimate
+ * is returned.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TableStatistics {
+
+    private static final String LIVE_ROWS_SQL = """
+            select case when c.reltuples < 0 then -1 else (c.reltuples * coalesce(
+                (select case when s.most_common_vals is null then 1
+                             else coalesce(s.most_common_freqs[array_position(s.most_common_vals::text::boolean[], false)], 0)
+                        end
+                   from pg_stats s
+                  where s.schemaname = n.nspname and s.tablename = c.relname and s.attname = 'deleted'), 1))::bigint end
+              from pg_class c
+              join pg_namespace n on n.oid = c.relnamespace
+             where c.oid = to_regclass(?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    public OptionalLong estimateRows(Class<?> entityType) {
+        Table table = entityType.getAnnotation(Table.class);
+        if (table == null || !isPostgres()) {
+            return OptionalLong.empty();
+        }
+        try {
+            Long rows = jdbcTemplate.queryForObject(LIVE_ROWS_SQL, Long.class, table.name());
+            // reltuples is -1 until the table has been analyzed at least once
+            return rows == null || rows < 0 ? OptionalLong.empty() : OptionalLong.of(rows);
+        } catch (DataAccessException ex) {
+            log.debug("Row estimate unavailable for {}", table.name(), ex);
+            return OptionalLong.empty();
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equalsIgnoreCase(product);
+            postgres = result;
+        }
+        return result;
+    }
+}
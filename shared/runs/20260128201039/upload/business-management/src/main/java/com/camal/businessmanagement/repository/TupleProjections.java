@@ -0,0 +1,139 @@
+package com.camal.businessmanagement.repository;
+
+import com.camal.businessmanagement.exception.BadRequestException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse fieldsets ({@code ?fields=id,productName}): list queries that select only the
+ * requested columns as JPA tuples instead of whole entities.
+ * <p>
+ * Rows come back as maps keyed by field name, in the requested order. They are plain values,
+ * so nothing is hydrated, put in the persistence context or mapped.
+ */
+@Component
+public class TupleProjections {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Resolves a {@code fields} parameter against the entity and the response DTO: a field can
+     * be selected when the DTO exposes it and the entity has a basic attribute of that name.
+     *
+     * @throws BadRequestException for an empty list or a field that cannot be selected
+     */
+    public List<String> fields(String fields, Class<?> entityType, Class<?> dtoType) {
+        EntityType<?> entity = em.getMetamodel().entity(entityType);
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            Attribute<?, ?> attribute = entity.getAttributes().stream()
+                    .filter(a -> a.getName().equals(name))
+                    .findFirst()
+                    .orElse(null);
+            if (attribute == null
+                    || attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC
+                    || ReflectionUtils.findField(dtoType, name) == null) {
+                throw new BadRequestException("Unknown field: " + name);
+            }
+            selected.add(name);
+        }
+        if (selected.isEmpty()) {
+            throw new BadRequestException("fields must name at least one field");
+        }
+        return List.copyOf(selected);
+    }
+
+    /**
+     * One page of rows with only {@code fields} selected.
+     *
+     * @param spec      filters and ordering of the page query
+     * @param countSpec filters for the total count; null returns a {@link Slice} without a count
+     */
+    public <T> Slice<Map<String, Object>> find(Class<T> type, Specification<T> spec, Specification<T> countSpec,
+                                               List<String> fields, Pageable pageable) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(root.get(field).alias(field));
+        }
+        query.select(cb.tuple(selections));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<Tuple> typed = em.createQuery(query).setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(rows(typed.getResultList()), pageable, false);
+        }
+        typed.setFirstResult((int) pageable.getOffset());
+        if (countSpec != null) {
+            List<Map<String, Object>> content = rows(typed.setMaxResults(pageable.getPageSize()).getResultList());
+            return new PageImpl<>(content, pageable, count(type, countSpec));
+        }
+        // One extra row tells whether there is a next page without counting
+        List<Map<String, Object>> content = rows(typed.setMaxResults(pageable.getPageSize() + 1).getResultList());
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    private <T> long count(Class<T> type, Specification<T> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(type);
+        query.select(cb.count(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return em.createQuery(query).getSingleResult();
+    }
+
+    private static List<Map<String, Object>> rows(List<Tuple> tuples) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                row.put(element.getAlias(), tuple.get(element));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,91 @@
+package com.camal.businessmanagement.search;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Support for {@code sort=relevance} on list endpoints.
+ * <p>
+ * Relevance is not an entity attribute, so it cannot go through the regular Pageable sort.
+ * The Specification gets {@link #orderBy} and the Pageable goes through {@link #withoutRelevance},
+ * so ordering is by {@code search_rank} over the searched columns, then by the remaining sort
+ * orders and finally by id.
+ */
+public final class RelevanceSort {
+
+    public static final String RELEVANCE = "relevance";
+
+    private RelevanceSort() {
+        // Utility class
+    }
+
+    public static boolean isRequested(Sort sort) {
+        return sort.getOrderFor(RELEVANCE) != null;
+    }
+
+    public static boolean isRequested(Pageable pageable) {
+        return isRequested(pageable.getSort());
+    }
+
+    /**
+     * Drops the sort when relevance is requested, since {@link #orderBy} then applies the
+     * whole ordering; otherwise returns the pageable unchanged.
+     */
+    public static Pageable withoutRelevance(Pageable pageable) {
+        if (!isRequested(pageable) || pageable.isUnpaged()) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+    }
+
+    /**
+     * Same as {@link #withoutRelevance(Pageable)} for queries without paging.
+     */
+    public static Sort withoutRelevance(Sort sort) {
+        return isRequested(sort) ? Sort.unsorted() : sort;
+    }
+
+    /**
+     * Ordering-only specification: adds no predicate and leaves count queries alone.
+     *
+     * @param q      search text, ranking is skipped when blank
+     * @param sort   requested sort; orders other than relevance are applied after the rank
+     * @param fields attributes searched by {@code q}
+     */
+    public static <T> Specification<T> orderBy(String q, Sort sort, String... fields) {
+        return (root, query, cb) -> {
+            Class<?> resultType = query.getResultType();
+            if (resultType == Long.class || resultType == long.class) {
+                return null;
+            }
+
+            List<Order> orders = new ArrayList<>();
+            if (q != null && !q.isBlank()) {
+                // A bind parameter rather than cb.literal, which would inline the user's text into the SQL
+                Expression<String> needle = ((HibernateCriteriaBuilder) cb).value(q.toLowerCase(Locale.ROOT));
+                Expression<Double> rank = null;
+                for (String field : fields) {
+                    Expression<Double> fieldRank = cb.function(SearchFunctionContributor.SEARCH_RANK, Double.class,
+                            cb.lower(root.get(field)), needle);
+                    rank = rank == null ? fieldRank : cb.sum(rank, fieldRank);
+                }
+                orders.add(cb.desc(rank));
+            }
+            Sort rest = Sort.by(sort.filter(order -> !RELEVANCE.equals(order.getProperty())).toList());
+            orders.addAll(QueryUtils.toOrders(rest, root, cb));
+            orders.add(cb.asc(root.get("id")));
+            query.orderBy(orders);
+            return null;
+        };
+    }
+}
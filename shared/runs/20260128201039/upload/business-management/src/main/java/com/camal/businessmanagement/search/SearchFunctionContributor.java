@@ -0,0 +1,31 @@
+package com.camal.businessmanagement.search;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers {@code search_rank(text, query)} for relevance ordering of {@code q} searches.
+ * <p>
+ * On PostgreSQL it is {@code pg_trgm}'s {@code word_similarity}, which the trigram indexes from
+ * the {@code V3__trigram_indexes.sql} migration also serve. Other databases (H2 in tests) rank
+ * by how early the query occurs in the text. Both return 0 for no match or a null column.
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+
+    public static final String SEARCH_RANK = "search_rank";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Double> doubleType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.DOUBLE);
+
+        String pattern = functionContributions.getDialect() instanceof PostgreSQLDialect
+                ? "coalesce(word_similarity(?2, ?1), 0)"
+                : "coalesce(1.0 / nullif(locate(?2, ?1), 0), 0)";
+        functionContributions.getFunctionRegistry().registerPattern(SEARCH_RANK, pattern, doubleType);
+    }
+}
@@ -1,17 +1,40 @@
 package com.camal.businessmanagement.service;
 
+import com.camal.businessmanagement.common.BulkReport;
+import com.camal.businessmanagement.common.BulkRequest;
+import com.camal.businessmanagement.common.CountMode;
+import com.camal.businessmanagement.common.EstimatedPage;
+import com.camal.businessmanagement.common.ExportFormat;
+import com.camal.businessmanagement.common.ExportWriter;
+import com.camal.businessmanagement.common.KeysetCursor;
 import com.camal.businessmanagement.dto.product.allop.AllopRequestDto;
 import com.camal.businessmanagement.dto.product.allop.AllopResponseDto;
 import com.camal.businessmanagement.entity.Allop;
 import com.camal.businessmanagement.exception.AllopNotFound;
+import com.camal.businessmanagement.exception.ConflictException;
+import com.camal.businessmanagement.filter.FilterCompiler;
 import com.camal.businessmanagement.mapper.AllopMapper;
 import com.camal.businessmanagement.repository.AllopRepository;
-import com.camal.businessmanagement.spec.AllopSpecifications;
+import com.camal.businessmanagement.repository.SoftDeletes;
+import com.camal.businessmanagement.repository.EntityStreams;
+import com.camal.businessmanagement.repository.KeysetScrolls;
+import com.camal.businessmanagement.repository.TableStatistics;
+import com.camal.businessmanagement.search.RelevanceSort;
+import java.io.OutputStream;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
 
 @jakarta.annotation.Generated("java-project-crud.py")
 @Service
@@ -21,6 +44,13 @@ public class AllopService {
 
     private final AllopRepository repository;
 private final AllopMapper mapper;
+    private final TableStatistics tableStatistics;
+    private final BulkProcessor bulkProcessor;
+    private final EntityStreams entityStreams;
+    private final KeysetScrolls keysetScrolls;
+    private final SoftDeletes softDeletes;
+    private final ObjectMapper objectMapper;
+    private final FilterCompiler filterCompiler;
 
     public AllopResponseDto create(AllopRequestDto dto) {
         Allop entity = mapper.toEntity(dto);
@@ -47,15 +77,67 @@ private final AllopMapper mapper;
     }
 
     @Transactional(readOnly = true)
-    public List<AllopResponseDto> getAll() {
-        var spec = AllopSpecifications.notDeleted();
-        return repository.findAll(spec).stream().map(mapper::toDto).collect(Collectors.toList());
+    public Page<AllopResponseDto> list(Map<String, String> params, Pageable pageable) {
+        var spec = filterCompiler.specification(Allop.class, params, pageable.getSort());
+        return repository.findAll(spec, RelevanceSort.withoutRelevance(pageable)).map(mapper::toDto);
     }
 
-    public void delete(Long id) {
-        Allop entity = repository.findById(id)
-                .orElseThrow(() -> new AllopNotFound(id));
-        entity.setDeleted(true);
-        repository.save(entity);
+    @Transactional(readOnly = true)
+    public Slice<AllopResponseDto> list(Map<String, String> params, Pageable pageable, CountMode count) {
+        if (count == CountMode.EXACT) {
+            return list(params, pageable);
+        }
+        var spec = filterCompiler.specification(Allop.class, params, pageable.getSort());
+        Slice<Allop> slice = repository.findBy(spec, query -> query.slice(RelevanceSort.withoutRelevance(pageable)));
+        OptionalLong estimate = count == CountMode.ESTIMATE && !filterCompiler.hasFilters(Allop.class, params)
+                ? tableStatistics.estimateRows(Allop.class)
+                : OptionalLong.empty();
+        if (estimate.isPresent()) {
+            return new EstimatedPage<>(slice.getContent(), pageable, estimate.getAsLong(), slice.hasNext())
+                    .map(mapper::toDto);
+        }
+        return slice.map(mapper::toDto);
+    }
+
+    @Transactional(readOnly = true)
+    public Window<AllopResponseDto> scroll(Map<String, String> params, String cursor, Pageable pageable) {
+        var spec = filterCompiler.specification(Allop.class, params, pageable.getSort());
+        KeysetScrollPosition position = KeysetCursor.decode(cursor, pageable.getSort(), Allop.class);
+        return keysetScrolls.scroll(Allop.class, spec, position, pageable.getSort(), pageable.getPageSize())
+                .map(mapper::toDto);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Specification<Allop> exportFilter(Map<String, String> params, Sort sort) {
+        return filterCompiler.specification(Allop.class, params, sort);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void export(Specification<Allop> spec, Sort sort, ExportFormat format, OutputStream out) {
+        try (Stream<Allop> rows = entityStreams.stream(Allop.class, spec, RelevanceSort.withoutRelevance(sort));
+             ExportWriter<AllopResponseDto> writer = ExportWriter.open(format, AllopResponseDto.class, out, objectMapper)) {
+            rows.forEach(row -> writer.write(mapper.toDto(row)));
+        }
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkReport bulk(BulkRequest<AllopRequestDto, AllopRequestDto> request) {
+        return bulkProcessor.process(request, repository, new BulkMapping<>(
+                mapper::toEntity,
+                mapper::updateFromRequest,
+                null,
+                Allop::getId,
+                Allop::getVersion,
+                Allop::isDeleted,
+                entity -> entity.setDeleted(true)));
+    }
+
+    public void delete(Long id, Long version) {
+        switch (softDeletes.delete(Allop.class, id, version)) {
+            case NOT_FOUND -> throw new AllopNotFound(id);
+            case VERSION_MISMATCH -> throw new ConflictException("version mismatch");
+            case DELETED -> {
+            }
+        }
     }
 }
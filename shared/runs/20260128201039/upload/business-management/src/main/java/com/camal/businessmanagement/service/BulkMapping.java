@@ -0,0 +1,28 @@
+package com.camal.businessmanagement.service;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * How {@link BulkProcessor} maps DTOs onto one entity type.
+ *
+ * @param toEntity        create DTO to new entity
+ * @param update          applies an update DTO to a loaded entity
+ * @param expectedVersion version sent with an update, or {@code null} when the entity's
+ *                        updates are not version-checked
+ * @param id              entity id accessor
+ * @param version         entity version accessor
+ * @param deleted         whether a loaded entity is soft-deleted
+ * @param markDeleted     soft-deletes a loaded entity
+ */
+public record BulkMapping<E, C, U>(
+        Function<C, E> toEntity,
+        BiConsumer<E, U> update,
+        Function<U, Long> expectedVersion,
+        Function<E, Long> id,
+        Function<E, Long> version,
+        Predicate<E> deleted,
+        Consumer<E> markDeleted) {
+}
@@ -0,0 +1,290 @@
+package com.camal.businessmanagement.service;
+
+import com.camal.businessmanagement.common.BulkItemResult;
+import com.camal.businessmanagement.common.BulkItemResult.Operation;
+import com.camal.businessmanagement.common.BulkItemResult.Status;
+import com.camal.businessmanagement.common.BulkReport;
+import com.camal.businessmanagement.common.BulkRequest;
+import com.camal.businessmanagement.exception.BadRequestException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies bulk create/update/delete requests in chunks.
+ * <p>
+ * Each chunk runs in its own transaction and is flushed once, so Hibernate sends its
+ * statements as JDBC batches ({@code hibernate.jdbc.batch_size}) and updates/deletes load
+ * their rows with a single {@code id in (...)} select. Items that fail validation, do not
+ * exist (or are soft-deleted) or carry a stale version are reported without touching the rest
+ * of the chunk. If
+ * the flush itself fails (a concurrent write, a constraint), the chunk is rolled back and
+ * replayed one item per transaction so the failure lands on the item that caused it.
+ */
+@Slf4j
+@Component
+public class BulkProcessor {
+
+    private static final String VERSION_REQUIRED = "version: Version is required for optimistic locking";
+
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public BulkProcessor(PlatformTransactionManager transactionManager,
+                         Validator validator,
+                         @Value("${app.bulk.chunk-size:500}") int chunkSize,
+                         @Value("${app.bulk.max-items:10000}") int maxItems) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    public <E, C, U> BulkReport process(BulkRequest<C, U> request,
+                                        JpaRepository<E, Long> repository,
+                                        BulkMapping<E, C, U> mapping) {
+        int total = request.size();
+        if (total == 0) {
+            throw new BadRequestException("bulk request is empty");
+        }
+        if (total > maxItems) {
+            throw new BadRequestException("bulk request must not exceed " + maxItems + " items");
+        }
+
+        List<BulkItemResult> results = new ArrayList<>(total);
+        results.addAll(run(Operation.CREATE, listOf(request.getCreate()), this::createChecks,
+                chunk -> create(chunk, repository, mapping)));
+        results.addAll(run(Operation.UPDATE, listOf(request.getUpdate()), updateChecks(mapping.expectedVersion()),
+                chunk -> update(chunk, repository, mapping)));
+        results.addAll(run(Operation.DELETE, listOf(request.getDelete()), deleteChecks(),
+                chunk -> delete(chunk, repository, mapping)));
+        return BulkReport.of(results);
+    }
+
+    private <E, C> List<BulkItemResult> create(List<Pending<C>> chunk,
+                                               JpaRepository<E, Long> repository,
+                                               BulkMapping<E, C, ?> mapping) {
+        List<E> entities = chunk.stream().map(item -> mapping.toEntity().apply(item.value())).toList();
+        repository.saveAllAndFlush(entities);
+
+        List<BulkItemResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            E entity = entities.get(i);
+            results.add(result(Operation.CREATE, chunk.get(i).index(), Status.CREATED,
+                    mapping.id().apply(entity), mapping.version().apply(entity), null));
+        }
+        return results;
+    }
+
+    private <E, U> List<BulkItemResult> update(List<Pending<BulkRequest.Item<U>>> chunk,
+                                               JpaRepository<E, Long> repository,
+                                               BulkMapping<E, ?, U> mapping) {
+        Map<Long, E> loaded = load(chunk.stream().map(item -> item.value().getId()).toList(), repository, mapping);
+
+        List<BulkItemResult> results = new ArrayList<>(chunk.size());
+        List<Pending<BulkRequest.Item<U>>> applied = new ArrayList<>(chunk.size());
+        for (Pending<BulkRequest.Item<U>> item : chunk) {
+            Long id = item.value().getId();
+            U dto = item.value().getData();
+            E entity = loaded.get(id);
+            if (entity == null) {
+                results.add(result(Operation.UPDATE, item.index(), Status.NOT_FOUND, id, null, "not found"));
+                continue;
+            }
+            Long expected = mapping.expectedVersion() == null ? null : mapping.expectedVersion().apply(dto);
+            Long current = mapping.version().apply(entity);
+            if (expected != null && current != null && !Objects.equals(current, expected)) {
+                results.add(result(Operation.UPDATE, item.index(), Status.CONFLICT, id, current, "version mismatch"));
+                continue;
+            }
+            mapping.update().accept(entity, dto);
+            applied.add(item);
+        }
+        repository.flush();
+
+        for (Pending<BulkRequest.Item<U>> item : applied) {
+            E entity = loaded.get(item.value().getId());
+            results.add(result(Operation.UPDATE, item.index(), Status.UPDATED,
+                    mapping.id().apply(entity), mapping.version().apply(entity), null));
+        }
+        return results;
+    }
+
+    private <E> List<BulkItemResult> delete(List<Pending<Long>> chunk,
+                                            JpaRepository<E, Long> repository,
+                                            BulkMapping<E, ?, ?> mapping) {
+        Map<Long, E> loaded = load(chunk.stream().map(Pending::value).toList(), repository, mapping);
+
+        List<BulkItemResult> results = new ArrayList<>(chunk.size());
+        for (Pending<Long> item : chunk) {
+            E entity = loaded.get(item.value());
+            if (entity == null) {
+                results.add(result(Operation.DELETE, item.index(), Status.NOT_FOUND, item.value(), null, "not found"));
+                continue;
+            }
+            mapping.markDeleted().accept(entity);
+            results.add(result(Operation.DELETE, item.index(), Status.DELETED, item.value(), null, null));
+        }
+        repository.flush();
+        return results;
+    }
+
+    /**
+     * Live rows by id; soft-deleted ones are left out, so their items are reported as not found.
+     */
+    private static <E> Map<Long, E> load(List<Long> ids, JpaRepository<E, Long> repository, BulkMapping<E, ?, ?> mapping) {
+        return repository.findAllById(ids).stream()
+                .filter(mapping.deleted().negate())
+                .collect(Collectors.toMap(mapping.id(), Function.identity()));
+    }
+
+    /**
+     * Pre-checks every item, then runs the valid ones chunk by chunk. Results come back in
+     * list order.
+     */
+    private <T> List<BulkItemResult> run(Operation operation,
+                                         List<T> items,
+                                         Function<List<T>, List<String>> checks,
+                                         Function<List<Pending<T>>, List<BulkItemResult>> work) {
+        BulkItemResult[] results = new BulkItemResult[items.size()];
+        List<String> problems = checks.apply(items);
+        List<Pending<T>> valid = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            if (problems.get(i) != null) {
+                results[i] = result(operation, i, Status.INVALID, null, null, problems.get(i));
+            } else {
+                valid.add(new Pending<>(i, items.get(i)));
+            }
+        }
+
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<Pending<T>> chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+            for (BulkItemResult result : execute(operation, chunk, work)) {
+                results[result.getIndex()] = result;
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private <T> List<BulkItemResult> execute(Operation operation,
+                                             List<Pending<T>> chunk,
+                                             Function<List<Pending<T>>, List<BulkItemResult>> work) {
+        try {
+            return transactionTemplate.execute(status -> work.apply(chunk));
+        } catch (RuntimeException ex) {
+            if (chunk.size() > 1) {
+                log.debug("Bulk {} chunk of {} failed, replaying item by item", operation, chunk.size(), ex);
+                List<BulkItemResult> results = new ArrayList<>(chunk.size());
+                for (Pending<T> item : chunk) {
+                    results.addAll(execute(operation, List.of(item), work));
+                }
+                return results;
+            }
+            return List.of(failure(operation, chunk.get(0).index(), ex));
+        }
+    }
+
+    private static BulkItemResult failure(Operation operation, int index, RuntimeException ex) {
+        if (ex instanceof ObjectOptimisticLockingFailureException) {
+            return result(operation, index, Status.CONFLICT, null, null, "Optimistic lock failure");
+        }
+        if (ex instanceof DataIntegrityViolationException) {
+            return result(operation, index, Status.CONFLICT, null, null, "Data integrity violation");
+        }
+        log.warn("Bulk {} of item {} failed", operation, index, ex);
+        return result(operation, index, Status.FAILED, null, null, "Internal error");
+    }
+
+    private <T> List<String> createChecks(List<T> items) {
+        return items.stream().map(this::violations).toList();
+    }
+
+    private String violations(Object dto) {
+        if (dto == null) {
+            return "item is required";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * The request DTOs leave {@code version} optional because single-item updates may send it as
+     * {@code If-Match} instead; bulk items have no header, so it is required here.
+     */
+    private <U> Function<List<BulkRequest.Item<U>>, List<String>> updateChecks(Function<U, Long> expectedVersion) {
+        return items -> {
+            Set<Long> seen = new HashSet<>();
+            return items.stream().map(item -> {
+                if (item == null || item.getId() == null) {
+                    return "id is required";
+                }
+                if (!seen.add(item.getId())) {
+                    return "duplicate id";
+                }
+                if (item.getData() == null) {
+                    return "data is required";
+                }
+                String violations = violations(item.getData());
+                if (expectedVersion != null && expectedVersion.apply(item.getData()) == null) {
+                    return violations == null ? VERSION_REQUIRED : violations + "; " + VERSION_REQUIRED;
+                }
+                return violations;
+            }).toList();
+        };
+    }
+
+    private Function<List<Long>, List<String>> deleteChecks() {
+        return ids -> {
+            Set<Long> seen = new HashSet<>();
+            return ids.stream().map(id -> {
+                if (id == null) {
+                    return "id is required";
+                }
+                return seen.add(id) ? null : "duplicate id";
+            }).toList();
+        };
+    }
+
+    private static BulkItemResult result(Operation operation, int index, Status status, Long id, Long version, String message) {
+        return BulkItemResult.builder()
+                .operation(operation)
+                .index(index)
+                .status(status)
+                .id(id)
+                .version(version)
+                .message(message)
+                .build();
+    }
+
+    private static <T> List<T> listOf(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+
+    private record Pending<T>(int index, T value) {
+    }
+}
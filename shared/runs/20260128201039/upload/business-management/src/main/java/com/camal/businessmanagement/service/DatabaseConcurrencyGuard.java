@@ -0,0 +1,99 @@
+package com.camal.businessmanagement.service;
+
+import com.camal.businessmanagement.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of service calls running at once when requests are handled on virtual
+ * threads ({@code spring.threads.virtual.enabled=true}).
+ * <p>
+ * With platform threads, Tomcat's worker pool bounds concurrency. With virtual threads every
+ * request gets a thread, so thousands of them would queue on the Hikari pool and fail after
+ * its connection timeout with a 500. The guard keeps the excess waiting on a fair semaphore
+ * sized to the pool ({@code app.db.max-concurrency}) and answers 503 with {@code Retry-After}
+ * once {@code app.db.acquire-timeout} has passed.
+ * <p>
+ * Streaming exports ({@code *Service.export}) hold their permit for as long as the download
+ * runs, so they draw from a separate, small budget ({@code app.db.export-concurrency}) and
+ * cannot starve ordinary calls. They stream from their own pool, which is sized to this budget
+ * unless {@code app.export.pool-size} says otherwise. A
+ * service call made from inside another one on the same thread runs on the caller's permit
+ * rather than taking a second one, which could deadlock once every permit is held by an
+ * outer call.
+ */
+@Slf4j
+@Aspect
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class DatabaseConcurrencyGuard {
+
+    /** Set while the current thread holds a permit from either budget. */
+    private static final ThreadLocal<Boolean> HOLDS_PERMIT = new ThreadLocal<>();
+
+    private final Semaphore permits;
+    private final Semaphore exportPermits;
+    private final long timeoutNanos;
+
+    public DatabaseConcurrencyGuard(MeterRegistry registry,
+                                    @Value("${app.db.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrency,
+                                    @Value("${app.db.export-concurrency:2}") int exportConcurrency,
+                                    @Value("${app.db.acquire-timeout:2s}") Duration acquireTimeout) {
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.exportPermits = new Semaphore(exportConcurrency, true);
+        this.timeoutNanos = acquireTimeout.toNanos();
+        Gauge.builder("app.db.guard.waiting", permits, Semaphore::getQueueLength)
+                .description("Service calls waiting for a database permit")
+                .register(registry);
+        Gauge.builder("app.db.guard.export.waiting", exportPermits, Semaphore::getQueueLength)
+                .description("Exports waiting for an export permit")
+                .register(registry);
+        log.info("Virtual threads: at most {} concurrent service calls and {} exports", maxConcurrency, exportConcurrency);
+    }
+
+    @Pointcut("execution(public * com.camal.businessmanagement.service.*Service.export(..))")
+    void exports() {
+    }
+
+    @Around("execution(public * com.camal.businessmanagement.service.*Service.*(..)) && !exports()")
+    public Object guard(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedWithPermit(permits, joinPoint, "Too many concurrent requests, retry later");
+    }
+
+    @Around("exports()")
+    public Object guardExport(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedWithPermit(exportPermits, joinPoint, "Too many concurrent exports, retry later");
+    }
+
+    private Object proceedWithPermit(Semaphore semaphore, ProceedingJoinPoint joinPoint, String busyMessage) throws Throwable {
+        if (HOLDS_PERMIT.get() != null) {
+            return joinPoint.proceed();
+        }
+        if (!semaphore.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+            throw new ServiceUnavailableException(busyMessage);
+        }
+        HOLDS_PERMIT.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            HOLDS_PERMIT.remove();
+            semaphore.release();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.camal.businessmanagement.service;
+
+import com.camal.businessmanagement.common.PriceStats;
+import com.camal.businessmanagement.exception.BadRequestException;
+import com.camal.businessmanagement.filter.FilterDefinition;
+import com.camal.businessmanagement.repository.PriceAggregates;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Serves {@link PriceAggregates} through a short-lived cache, so a dashboard refreshing the
+ * same filter hits the database once per TTL.
+ * <p>
+ * Entries are keyed by entity, filter values and bucket count: the same filter parameters in
+ * any order, with blank ones and paging/sorting parameters left out, share an entry. A miss
+ * runs both statements in one read-only transaction (a replica when configured); a hit takes
+ * no connection. The statements run outside the cache, so a slow one does not hold up other
+ * filters; concurrent misses on the same filter may each run them. Writes do not evict, so
+ * figures can be up to {@code app.stats.ttl} old.
+ * Cache statistics are published with {@code cache=price.stats}.
+ */
+@Component
+public class PriceStatistics {
+
+    static final String BUCKETS_PARAM = "buckets";
+    static final int DEFAULT_BUCKETS = 10;
+    static final int MAX_BUCKETS = 50;
+
+    private final PriceAggregates aggregates;
+    private final TransactionTemplate readOnly;
+    private final Cache<Key, PriceStats> cache;
+
+    public PriceStatistics(PriceAggregates aggregates,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.stats.ttl:10s}") Duration ttl,
+                           @Value("${app.stats.max-entries:1000}") int maxEntries) {
+        this.aggregates = aggregates;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "price.stats");
+    }
+
+    /**
+     * @param params        list filter parameters plus an optional {@code buckets}
+     *                      (1 to {@value #MAX_BUCKETS}, default {@value #DEFAULT_BUCKETS})
+     * @param specification compiles the parameters other than {@code buckets}
+     * @throws BadRequestException for an invalid bucket count
+     */
+    public <T> PriceStats stats(Class<T> entityType, Map<String, String> params,
+                                Function<Map<String, String>, Specification<T>> specification) {
+        Map<String, String> filters = new HashMap<>(params);
+        int buckets = buckets(filters.remove(BUCKETS_PARAM));
+        Specification<T> spec = specification.apply(filters);
+
+        Key key = new Key(entityType, cacheKey(filters), buckets);
+        PriceStats stats = cache.getIfPresent(key);
+        if (stats == null) {
+            stats = readOnly.execute(status -> aggregates.aggregate(entityType, spec, buckets));
+            cache.put(key, stats);
+        }
+        return stats;
+    }
+
+    private static Map<String, String> cacheKey(Map<String, String> filters) {
+        Map<String, String> key = new HashMap<>();
+        filters.forEach((name, value) -> {
+            if (!FilterDefinition.CONTROL_PARAMETERS.contains(name) && value != null && !value.isBlank()) {
+                key.put(name, value);
+            }
+        });
+        return Map.copyOf(key);
+    }
+
+    private static int buckets(String value) {
+        if (value == null || value.isBlank()) {
+            return DEFAULT_BUCKETS;
+        }
+        try {
+            int buckets = Integer.parseInt(value.trim());
+            if (buckets >= 1 && buckets <= MAX_BUCKETS) {
+                return buckets;
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new BadRequestException("buckets must be a number from 1 to " + MAX_BUCKETS);
+    }
+
+    private record Key(Class<?> entityType, Map<String, String> filters, int buckets) {
+    }
+}
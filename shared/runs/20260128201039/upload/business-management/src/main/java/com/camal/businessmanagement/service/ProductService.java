@@ -1,5 +1,14 @@
 package com.camal.businessmanagement.service;
 
+import com.camal.businessmanagement.common.BatchResponse;
+import com.camal.businessmanagement.common.BulkReport;
+import com.camal.businessmanagement.common.BulkRequest;
+import com.camal.businessmanagement.common.CountMode;
+import com.camal.businessmanagement.common.EstimatedPage;
+import com.camal.businessmanagement.common.ExportFormat;
+import com.camal.businessmanagement.common.ExportWriter;
+import com.camal.businessmanagement.common.KeysetCursor;
+import com.camal.businessmanagement.common.PriceStats;
 import com.camal.businessmanagement.dto.product.product.ProductCreateRequestDto;
 import com.camal.businessmanagement.dto.product.product.ProductPatchRequestDto;
 import com.camal.businessmanagement.dto.product.product.ProductResponseDto;
@@ -7,19 +16,41 @@ import com.camal.businessmanagement.dto.product.product.ProductUpdateRequestDto;
 import com.camal.businessmanagement.entity.Product;
 import com.camal.businessmanagement.exception.BadRequestException;
 import com.camal.businessmanagement.exception.ConflictException;
+import com.camal.businessmanagement.exception.PreconditionFailedException;
 import com.camal.businessmanagement.exception.ProductNotFound;
+import com.camal.businessmanagement.filter.FilterCompiler;
 import com.camal.businessmanagement.mapper.ProductMapper;
+import com.camal.businessmanagement.repository.EntityBatches;
+import com.camal.businessmanagement.repository.EntityStreams;
+import com.camal.businessmanagement.repository.KeysetScrolls;
 import com.camal.businessmanagement.repository.ProductRepository;
-import com.camal.businessmanagement.spec.ProductSpecifications;
+import com.camal.businessmanagement.repository.SoftDeletes;
+import com.camal.businessmanagement.repository.TableStatistics;
+import com.camal.businessmanagement.repository.TupleProjections;
+import com.camal.businessmanagement.search.RelevanceSort;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
 
 /**
  * Service layer for Product operations.
@@ -30,8 +61,21 @@ import java.util.Objects;
 @Transactional
 public class ProductService {
 
+    /** Upper bound on the ids of one get-by-ids call, the same as the list page size cap. */
+    static final int MAX_BATCH_IDS = 200;
+
     private final ProductRepository repository;
     private final ProductMapper mapper;
+    private final TableStatistics tableStatistics;
+    private final BulkProcessor bulkProcessor;
+    private final EntityStreams entityStreams;
+    private final KeysetScrolls keysetScrolls;
+    private final SoftDeletes softDeletes;
+    private final ObjectMapper objectMapper;
+    private final TupleProjections tupleProjections;
+    private final FilterCompiler filterCompiler;
+    private final EntityBatches entityBatches;
+    private final PriceStatistics priceStatistics;
 
     public ProductResponseDto create(ProductCreateRequestDto dto) {
         Product entity = mapper.toEntity(dto);
@@ -40,40 +84,65 @@ public class ProductService {
         return mapper.toDto(entity);
     }
 
-    public ProductResponseDto update(Long id, ProductUpdateRequestDto dto) {
+    /**
+     * @param ifMatch version from the {@code If-Match} header; when present it replaces the
+     *                body {@code version} and a mismatch is a failed precondition instead of a conflict
+     */
+    public ProductResponseDto update(Long id, ProductUpdateRequestDto dto, Long ifMatch) {
         Product entity = repository.findById(id)
                 .orElseThrow(() -> new ProductNotFound(id));
 
-        if (dto.getVersion() == null) {
-            throw new BadRequestException("version is required");
-        }
-        if (entity.getVersion() != null && !Objects.equals(entity.getVersion(), dto.getVersion())) {
-            throw new ConflictException("version mismatch");
-        }
+        checkVersion(entity, ifMatch, dto.getVersion());
 
         mapper.updateFromUpdateDto(entity, dto);
 
-        entity = repository.save(entity);
+        // Flushed here so the response (and its ETag) carries the new version
+        entity = repository.saveAndFlush(entity);
         return mapper.toDto(entity);
     }
 
-    public ProductResponseDto patch(Long id, ProductPatchRequestDto dto) {
+    /**
+     * @param ifMatch version from the {@code If-Match} header; when present it replaces the
+     *                body {@code version} and a mismatch is a failed precondition instead of a conflict
+     */
+    public ProductResponseDto patch(Long id, ProductPatchRequestDto dto, Long ifMatch) {
         Product entity = repository.findById(id)
                 .orElseThrow(() -> new ProductNotFound(id));
 
-        if (dto.getVersion() == null) {
-            throw new BadRequestException("version is required");
-        }
-        if (entity.getVersion() != null && !Objects.equals(entity.getVersion(), dto.getVersion())) {
-            throw new ConflictException("version mismatch");
-        }
+        checkVersion(entity, ifMatch, dto.getVersion());
 
         mapper.updateFromPatchDto(entity, dto);
 
-        entity = repository.save(entity);
+        // Flushed here so the response (and its ETag) carries the new version
+        entity = repository.saveAndFlush(entity);
         return mapper.toDto(entity);
     }
 
+    private static void checkVersion(Product entity, Long ifMatch, Long bodyVersion) {
+        if (ifMatch != null) {
+            if (!Objects.equals(entity.getVersion(), ifMatch)) {
+                throw new PreconditionFailedException("version mismatch");
+            }
+            return;
+        }
+        if (bodyVersion == null) {
+            throw new BadRequestException("version is required (If-Match header or body)");
+        }
+        if (entity.getVersion() != null && !Objects.equals(entity.getVersion(), bodyVersion)) {
+            throw new ConflictException("version mismatch");
+        }
+    }
+
+    /**
+     * Current version of a live product, for answering conditional GETs without loading and
+     * mapping the whole row: only the version column is selected, whether or not the row is in
+     * the entity cache.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> currentVersion(Long id) {
+        return repository.findLiveVersion(id);
+    }
+
     @Transactional(readOnly = true)
     public ProductResponseDto get(Long id) {
         Product entity = repository.findById(id)
@@ -81,10 +150,88 @@ public class ProductService {
         return mapper.toDto(entity);
     }
 
+    /**
+     * Live products for {@code ids} in request order, repeated ids once. Cached rows are not
+     * queried; the others are loaded with one query. Unknown and soft-deleted ids are reported
+     * as missing.
+     */
+    @Transactional(readOnly = true)
+    public BatchResponse<ProductResponseDto> getAll(List<Long> ids) {
+        if (ids.contains(null)) {
+            throw new BadRequestException("ids must not contain null");
+        }
+        List<Long> distinct = List.copyOf(new LinkedHashSet<>(ids));
+        if (distinct.size() > MAX_BATCH_IDS) {
+            throw new BadRequestException("At most " + MAX_BATCH_IDS + " ids per request");
+        }
+        List<Product> rows = entityBatches.findAll(Product.class, distinct);
+        List<ProductResponseDto> items = new ArrayList<>(rows.size());
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            Product row = rows.get(i);
+            if (row == null || row.isDeleted()) {
+                missing.add(distinct.get(i));
+            } else {
+                items.add(mapper.toDto(row));
+            }
+        }
+        return new BatchResponse<>(items, missing);
+    }
+
     @Transactional(readOnly = true)
     public Page<ProductResponseDto> list(Map<String, String> params, Pageable pageable) {
-        var spec = ProductSpecifications.fromParams(params);
-        return repository.findAll(spec, pageable).map(mapper::toDto);
+        var spec = filterCompiler.specification(Product.class, params, pageable.getSort());
+        return repository.findAll(spec, RelevanceSort.withoutRelevance(pageable)).map(mapper::toDto);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<ProductResponseDto> list(Map<String, String> params, Pageable pageable, CountMode count) {
+        if (count == CountMode.EXACT) {
+            return list(params, pageable);
+        }
+        var spec = filterCompiler.specification(Product.class, params, pageable.getSort());
+        Slice<Product> slice = repository.findBy(spec, query -> query.slice(RelevanceSort.withoutRelevance(pageable)));
+        OptionalLong estimate = count == CountMode.ESTIMATE && !filterCompiler.hasFilters(Product.class, params)
+                ? tableStatistics.estimateRows(Product.class)
+                : OptionalLong.empty();
+        if (estimate.isPresent()) {
+            return new EstimatedPage<>(slice.getContent(), pageable, estimate.getAsLong(), slice.hasNext())
+                    .map(mapper::toDto);
+        }
+        return slice.map(mapper::toDto);
+    }
+
+    /**
+     * Sparse fieldset variant of {@link #list(Map, Pageable, CountMode)}: selects only the
+     * requested columns and returns them as field-name-to-value rows.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Map<String, Object>> list(Map<String, String> params, String fields, Pageable pageable, CountMode count) {
+        List<String> selected = tupleProjections.fields(fields, Product.class, ProductResponseDto.class);
+        var spec = filterCompiler.specification(Product.class, params, pageable.getSort());
+        Pageable paging = RelevanceSort.withoutRelevance(pageable);
+        if (count == CountMode.EXACT) {
+            var countSpec = filterCompiler.specification(Product.class, params);
+            return tupleProjections.find(Product.class, spec, countSpec, selected, paging);
+        }
+        Slice<Map<String, Object>> slice = tupleProjections.find(Product.class, spec, null, selected, paging);
+        OptionalLong estimate = count == CountMode.ESTIMATE && !filterCompiler.hasFilters(Product.class, params)
+                ? tableStatistics.estimateRows(Product.class)
+                : OptionalLong.empty();
+        if (estimate.isPresent()) {
+            return new EstimatedPage<>(slice.getContent(), pageable, estimate.getAsLong(), slice.hasNext());
+        }
+        return slice;
+    }
+
+    /**
+     * Price aggregates of the products matching the list filters, cached briefly per filter.
+     * Runs outside the class-level transaction so a cached answer takes no connection.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PriceStats stats(Map<String, String> params) {
+        return priceStatistics.stats(Product.class, params,
+                filters -> filterCompiler.specification(Product.class, filters));
     }
 
     @Transactional(readOnly = true)
@@ -92,10 +239,67 @@ public class ProductService {
         return list(params, pageable);
     }
 
-    public void delete(Long id) {
-        Product entity = repository.findById(id)
-                .orElseThrow(() -> new ProductNotFound(id));
-        entity.setDeleted(true);
-        repository.save(entity);
+    @Transactional(readOnly = true)
+    public Slice<ProductResponseDto> search(Map<String, String> params, Pageable pageable, CountMode count) {
+        return list(params, pageable, count);
+    }
+
+    @Transactional(readOnly = true)
+    public Window<ProductResponseDto> scroll(Map<String, String> params, String cursor, Pageable pageable) {
+        var spec = filterCompiler.specification(Product.class, params, pageable.getSort());
+        KeysetScrollPosition position = KeysetCursor.decode(cursor, pageable.getSort(), Product.class);
+        return keysetScrolls.scroll(Product.class, spec, position, pageable.getSort(), pageable.getPageSize())
+                .map(mapper::toDto);
+    }
+
+    /**
+     * Compiles the list filters and sort of an export. Called before the streaming response is
+     * returned, so an invalid parameter is a 400 rather than a failure after the 200 is sent.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Specification<Product> exportFilter(Map<String, String> params, Sort sort) {
+        return filterCompiler.specification(Product.class, params, sort);
+    }
+
+    /**
+     * Streams every matching row to {@code out}. Runs outside the class-level transaction: the
+     * rows come from a stateless session on the export pool (see {@link EntityStreams}), so the
+     * download holds no connection of the application pool.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void export(Specification<Product> spec, Sort sort, ExportFormat format, OutputStream out) {
+        try (Stream<Product> rows = entityStreams.stream(Product.class, spec, RelevanceSort.withoutRelevance(sort));
+             ExportWriter<ProductResponseDto> writer = ExportWriter.open(format, ProductResponseDto.class, out, objectMapper)) {
+            rows.forEach(row -> writer.write(mapper.toDto(row)));
+        }
+    }
+
+    /**
+     * Applies creates, updates and deletes in chunked transactions and reports each item.
+     * Runs outside the class-level transaction so every chunk commits on its own.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkReport bulk(BulkRequest<ProductCreateRequestDto, ProductUpdateRequestDto> request) {
+        return bulkProcessor.process(request, repository, new BulkMapping<>(
+                mapper::toEntity,
+                mapper::updateFromUpdateDto,
+                ProductUpdateRequestDto::getVersion,
+                Product::getId,
+                Product::getVersion,
+                Product::isDeleted,
+                entity -> entity.setDeleted(true)));
+    }
+
+    /**
+     * Soft-deletes in one statement. With {@code version} the delete only applies to that
+     * version, otherwise it is unconditional like before.
+     */
+    public void delete(Long id, Long version) {
+        switch (softDeletes.delete(Product.class, id, version)) {
+            case NOT_FOUND -> throw new ProductNotFound(id);
+            case VERSION_MISMATCH -> throw new ConflictException("version mismatch");
+            case DELETED -> {
+            }
+        }
     }
 }
@@ -1,6 +1,13 @@
 // GENERATED BY java-project-crud.py
 package com.camal.businessmanagement.service;
 
+import com.camal.businessmanagement.common.BulkReport;
+import com.camal.businessmanagement.common.BulkRequest;
+import com.camal.businessmanagement.common.CountMode;
+import com.camal.businessmanagement.common.EstimatedPage;
+import com.camal.businessmanagement.common.ExportFormat;
+import com.camal.businessmanagement.common.ExportWriter;
+import com.camal.businessmanagement.common.KeysetCursor;
 import com.camal.businessmanagement.dto.product.test.TestCreateRequestDto;
 import com.camal.businessmanagement.dto.product.test.TestPatchRequestDto;
 import com.camal.businessmanagement.dto.product.test.TestResponseDto;
@@ -9,15 +16,29 @@ import com.camal.businessmanagement.entity.Test;
 import com.camal.businessmanagement.exception.BadRequestException;
 import com.camal.businessmanagement.exception.ConflictException;
 import com.camal.businessmanagement.exception.TestNotFound;
+import com.camal.businessmanagement.filter.FilterCompiler;
 import com.camal.businessmanagement.mapper.TestMapper;
+import com.camal.businessmanagement.repository.EntityStreams;
+import com.camal.businessmanagement.repository.KeysetScrolls;
+import com.camal.businessmanagement.repository.TableStatistics;
 import com.camal.businessmanagement.repository.TestRepository;
-import com.camal.businessmanagement.spec.TestSpecifications;
+import com.camal.businessmanagement.repository.SoftDeletes;
+import com.camal.businessmanagement.search.RelevanceSort;
+import java.io.OutputStream;
 import java.util.*;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
 
 @Service
 @RequiredArgsConstructor
@@ -26,6 +47,13 @@ public class TestService {
 
     private final TestRepository repository;
 private final TestMapper mapper;
+    private final TableStatistics tableStatistics;
+    private final BulkProcessor bulkProcessor;
+    private final EntityStreams entityStreams;
+    private final KeysetScrolls keysetScrolls;
+    private final SoftDeletes softDeletes;
+    private final ObjectMapper objectMapper;
+    private final FilterCompiler filterCompiler;
 
     public TestResponseDto create(TestCreateRequestDto dto) {
         Test entity = mapper.toEntity(dto);
@@ -47,7 +75,8 @@ private final TestMapper mapper;
 
         mapper.updateFromUpdateDto(entity, dto);
 
-        entity = repository.save(entity);
+        // Flushed here so the response carries the new version
+        entity = repository.saveAndFlush(entity);
         return mapper.toDto(entity);
     }
 
@@ -64,7 +93,8 @@ private final TestMapper mapper;
 
         mapper.updateFromPatchDto(entity, dto);
 
-        entity = repository.save(entity);
+        // Flushed here so the response carries the new version
+        entity = repository.saveAndFlush(entity);
         return mapper.toDto(entity);
     }
 
@@ -77,8 +107,25 @@ private final TestMapper mapper;
 
     @Transactional(readOnly = true)
     public Page<TestResponseDto> list(Map<String, String> params, Pageable pageable) {
-        var spec = TestSpecifications.fromParams(params);
-        return repository.findAll(spec, pageable).map(mapper::toDto);
+        var spec = filterCompiler.specification(Test.class, params, pageable.getSort());
+        return repository.findAll(spec, RelevanceSort.withoutRelevance(pageable)).map(mapper::toDto);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<TestResponseDto> list(Map<String, String> params, Pageable pageable, CountMode count) {
+        if (count == CountMode.EXACT) {
+            return list(params, pageable);
+        }
+        var spec = filterCompiler.specification(Test.class, params, pageable.getSort());
+        Slice<Test> slice = repository.findBy(spec, query -> query.slice(RelevanceSort.withoutRelevance(pageable)));
+        OptionalLong estimate = count == CountMode.ESTIMATE && !filterCompiler.hasFilters(Test.class, params)
+                ? tableStatistics.estimateRows(Test.class)
+                : OptionalLong.empty();
+        if (estimate.isPresent()) {
+            return new EstimatedPage<>(slice.getContent(), pageable, estimate.getAsLong(), slice.hasNext())
+                    .map(mapper::toDto);
+        }
+        return slice.map(mapper::toDto);
     }
 
     @Transactional(readOnly = true)
@@ -86,10 +133,50 @@ private final TestMapper mapper;
         return list(params, pageable);
     }
 
-    public void delete(Long id) {
-        Test entity = repository.findById(id)
-                .orElseThrow(() -> new TestNotFound(id));
-        entity.setDeleted(true);
-        repository.save(entity);
+    @Transactional(readOnly = true)
+    public Slice<TestResponseDto> search(Map<String, String> params, Pageable pageable, CountMode count) {
+        return list(params, pageable, count);
+    }
+
+    @Transactional(readOnly = true)
+    public Window<TestResponseDto> scroll(Map<String, String> params, String cursor, Pageable pageable) {
+        var spec = filterCompiler.specification(Test.class, params, pageable.getSort());
+        KeysetScrollPosition position = KeysetCursor.decode(cursor, pageable.getSort(), Test.class);
+        return keysetScrolls.scroll(Test.class, spec, position, pageable.getSort(), pageable.getPageSize())
+                .map(mapper::toDto);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Specification<Test> exportFilter(Map<String, String> params, Sort sort) {
+        return filterCompiler.specification(Test.class, params, sort);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void export(Specification<Test> spec, Sort sort, ExportFormat format, OutputStream out) {
+        try (Stream<Test> rows = entityStreams.stream(Test.class, spec, RelevanceSort.withoutRelevance(sort));
+             ExportWriter<TestResponseDto> writer = ExportWriter.open(format, TestResponseDto.class, out, objectMapper)) {
+            rows.forEach(row -> writer.write(mapper.toDto(row)));
+        }
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkReport bulk(BulkRequest<TestCreateRequestDto, TestUpdateRequestDto> request) {
+        return bulkProcessor.process(request, repository, new BulkMapping<>(
+                mapper::toEntity,
+                mapper::updateFromUpdateDto,
+                TestUpdateRequestDto::getVersion,
+                Test::getId,
+                Test::getVersion,
+                Test::isDeleted,
+                entity -> entity.setDeleted(true)));
+    }
+
+    public void delete(Long id, Long version) {
+        switch (softDeletes.delete(Test.class, id, version)) {
+            case NOT_FOUND -> throw new TestNotFound(id);
+            case VERSION_MISMATCH -> throw new ConflictException("version mismatch");
+            case DELETED -> {
+            }
+        }
     }
 }
@@ -0,0 +1,76 @@
+-- Schema as it was under ddl-auto before migrations were introduced.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate),
+-- so this script only runs on an empty schema.
+
+CREATE TABLE IF NOT EXISTS products (
+    id           bigint                      NOT NULL PRIMARY KEY,
+    url          varchar(500),
+    product_name varchar(255),
+    bought_price numeric(19, 4),
+    sell_price   numeric(19, 4),
+    description  text,
+    created_at   timestamp(6) with time zone NOT NULL,
+    updated_at   timestamp(6) with time zone,
+    created_by   varchar(100),
+    updated_by   varchar(100),
+    version      bigint,
+    deleted      boolean                     NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS allops (
+    id           bigint                      NOT NULL PRIMARY KEY,
+    url          varchar(500),
+    product_name varchar(255),
+    bought_price numeric(19, 4),
+    sell_price   numeric(19, 4),
+    description  text,
+    created_at   timestamp(6) with time zone NOT NULL,
+    updated_at   timestamp(6) with time zone,
+    created_by   varchar(100),
+    updated_by   varchar(100),
+    version      bigint,
+    deleted      boolean                     NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS guards (
+    id           bigint                      NOT NULL PRIMARY KEY,
+    url          varchar(500),
+    product_name varchar(255),
+    bought_price numeric(19, 4),
+    sell_price   numeric(19, 4),
+    description  text,
+    created_at   timestamp(6) with time zone NOT NULL,
+    updated_at   timestamp(6) with time zone,
+    created_by   varchar(100),
+    updated_by   varchar(100),
+    version      bigint,
+    deleted      boolean                     NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS tests (
+    id           bigint                      NOT NULL PRIMARY KEY,
+    url          varchar(500),
+    product_name varchar(255),
+    bought_price numeric(19, 4),
+    sell_price   numeric(19, 4),
+    description  text,
+    created_at   timestamp(6) with time zone NOT NULL,
+    updated_at   timestamp(6) with time zone,
+    created_by   varchar(100),
+    updated_by   varchar(100),
+    version      bigint,
+    deleted      boolean                     NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS massons (
+    id          bigint                      NOT NULL PRIMARY KEY,
+    name        varchar(255),
+    age         varchar(50),
+    masson_type varchar(100),
+    created_at  timestamp(6) with time zone NOT NULL,
+    updated_at  timestamp(6) with time zone,
+    created_by  varchar(100),
+    updated_by  varchar(100),
+    version     bigint,
+    deleted     boolean                     NOT NULL
+);
@@ -0,0 +1,15 @@
+-- Pooled id sequences (@SequenceGenerator allocationSize = 50, so INCREMENT BY must match).
+-- Hibernate reserves the 50 ids below the value it fetched; setval moves the sequence past
+-- the rows inserted under IDENTITY (and past any block already handed out, on databases
+-- where the sequences were created before migrations were managed).
+CREATE SEQUENCE IF NOT EXISTS products_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS allops_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS guards_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS tests_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS massons_seq INCREMENT BY 50;
+
+SELECT setval('products_seq', GREATEST((SELECT last_value FROM products_seq), (SELECT COALESCE(MAX(id), 0) + 50 FROM products)));
+SELECT setval('allops_seq', GREATEST((SELECT last_value FROM allops_seq), (SELECT COALESCE(MAX(id), 0) + 50 FROM allops)));
+SELECT setval('guards_seq', GREATEST((SELECT last_value FROM guards_seq), (SELECT COALESCE(MAX(id), 0) + 50 FROM guards)));
+SELECT setval('tests_seq', GREATEST((SELECT last_value FROM tests_seq), (SELECT COALESCE(MAX(id), 0) + 50 FROM tests)));
+SELECT setval('massons_seq', GREATEST((SELECT last_value FROM massons_seq), (SELECT COALESCE(MAX(id), 0) + 50 FROM massons)));
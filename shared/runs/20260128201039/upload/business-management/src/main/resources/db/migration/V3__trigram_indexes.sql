@@ -0,0 +1,18 @@
+-- Trigram indexes for the q search: lower(col) LIKE '%q%' and sort=relevance (word_similarity).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS products_url_trgm_idx ON products USING gin (lower(url) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS products_product_name_trgm_idx ON products USING gin (lower(product_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS products_description_trgm_idx ON products USING gin (lower(description) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS allops_url_trgm_idx ON allops USING gin (lower(url) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS allops_product_name_trgm_idx ON allops USING gin (lower(product_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS allops_description_trgm_idx ON allops USING gin (lower(description) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS guards_url_trgm_idx ON guards USING gin (lower(url) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS guards_product_name_trgm_idx ON guards USING gin (lower(product_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS guards_description_trgm_idx ON guards USING gin (lower(description) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS tests_url_trgm_idx ON tests USING gin (lower(url) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS tests_product_name_trgm_idx ON tests USING gin (lower(product_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS tests_description_trgm_idx ON tests USING gin (lower(description) gin_trgm_ops);
@@ -0,0 +1,25 @@
+-- Partial indexes for the soft-delete filter: every list/search/export query has
+-- "deleted = false", and sorts by id, created_at or a price. Deleted rows are left out,
+-- so the indexes stay as small as the live data. id is the tie-breaker for keyset pages.
+-- CONCURRENTLY keeps the tables writable while the indexes build; Flyway runs a script
+-- made only of such statements outside a transaction.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS products_id_live_idx ON products (id) WHERE deleted = false;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS products_created_at_live_idx ON products (created_at, id) WHERE deleted = false;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS products_bought_price_live_idx ON products (bought_price, id) WHERE deleted = false;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS products_sell_price_live_idx ON products (sell_price, id) WHERE deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS allops_id_live_idx ON allops (id) WHERE deleted = false;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS allops_created_at_live_idx ON allops (created_at, id) WHERE deleted = false;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS allops_bought_price_live_idx ON allops (bought_price, id) WHERE deleted = false;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS allops_sell_price_live_idx ON allops (sell_price, id) WHERE deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS guards_id_live_idx ON guards (id) WHERE deleted = false;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS guards_created_at_live_idx ON guards (created_at, id) WHERE deleted = false;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS guards_bought_price_live_idx ON guards (bought_price, id) WHERE deleted = false;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS guards_sell_price_live_idx ON guards (sell_price, id) WHERE deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS tests_id_live_idx ON tests (id) WHERE deleted = false;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS tests_created_at_live_idx ON tests (created_at, id) WHERE deleted = false;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS tests_bought_price_live_idx ON tests (bought_price, id) WHERE deleted = false;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS tests_sell_price_live_idx ON tests (sell_price, id) WHERE deleted = false;
@@ -0,0 +1,119 @@
+package com.camal.businessmanagement.benchmark;
+
+import com.camal.businessmanagement.entity.Product;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert throughput of pooled sequence ids (Product) against IDENTITY ids (a test-only copy),
+ * both flushed in chunks with the application's JDBC batch settings. Runs on its own H2
+ * database so the dropped/recreated sequences don't affect other test contexts.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:insert-benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class InsertThroughputIT {
+
+    private static final Logger log = LoggerFactory.getLogger(InsertThroughputIT.class);
+
+    private static final int ROWS = 5_000;
+    private static final int CHUNK = 500;
+
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @PersistenceContext private EntityManager em;
+
+    @Test
+    void pooledSequenceIdsBatchInserts() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Warm-up: class loading, statement preparation, first sequence block
+        insert(stats, 200, i -> identityRow(i));
+        insert(stats, 200, i -> productRow(i));
+
+        Run identity = insert(stats, ROWS, InsertThroughputIT::identityRow);
+        Run pooled = insert(stats, ROWS, InsertThroughputIT::productRow);
+
+        log.info("IDENTITY: {} rows/s, {} statements", identity.rowsPerSecond(), identity.statements());
+        log.info("pooled sequence: {} rows/s, {} statements", pooled.rowsPerSecond(), pooled.statements());
+
+        // One insert per row vs one per JDBC batch plus one sequence call per 50 ids
+        assertThat(identity.statements()).isGreaterThanOrEqualTo(ROWS);
+        assertThat(pooled.statements()).isLessThan(ROWS / 10);
+    }
+
+    private Run insert(Statistics stats, int rows, IntFunction<Object> row) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        stats.clear();
+        long start = System.nanoTime();
+        for (int from = 0; from < rows; from += CHUNK) {
+            int chunkStart = from;
+            tx.executeWithoutResult(status -> {
+                for (int i = chunkStart; i < Math.min(chunkStart + CHUNK, rows); i++) {
+                    em.persist(row.apply(i));
+                }
+                em.flush();
+                em.clear();
+            });
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        return new Run(rows, elapsedNanos, stats.getPrepareStatementCount());
+    }
+
+    private static Product productRow(int i) {
+        return Product.builder()
+                .productName("p" + i)
+                .boughtPrice(BigDecimal.ONE)
+                .sellPrice(BigDecimal.TEN)
+                .build();
+    }
+
+    private static IdentityRow identityRow(int i) {
+        IdentityRow row = new IdentityRow();
+        row.productName = "p" + i;
+        row.boughtPrice = BigDecimal.ONE;
+        row.sellPrice = BigDecimal.TEN;
+        return row;
+    }
+
+    private record Run(int rows, long elapsedNanos, long statements) {
+        long rowsPerSecond() {
+            return rows * 1_000_000_000L / Math.max(elapsedNanos, 1);
+        }
+    }
+
+    /** Same columns as Product with the old IDENTITY id, as the baseline. */
+    @Entity
+    @Table(name = "identity_benchmark_rows")
+    static class IdentityRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+        String productName;
+        BigDecimal boughtPrice;
+        BigDecimal sellPrice;
+    }
+}
@@ -1,15 +1,15 @@
 package com.camal.businessmanagement.crudbottests;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
 
 import java.lang.reflect.Field;
 import java.time.Instant;
@@ -57,7 +57,7 @@ class AllopCrudIT {
         JsonNode created = om.readTree(createdRes.getResponse().getContentAsString());
         assertThat(created).isNotNull();
 
-        String idStr = created.get("id").asText();
+        String idStr = created.get("id").asString();
 
         mvc.perform(get("/api/v1/allops/" + idStr))
                 .andExpect(status().isOk())
@@ -65,7 +65,7 @@ class AllopCrudIT {
 
         mvc.perform(get("/api/v1/allops"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(1));
+                .andExpect(jsonPath("$.totalElements").value(1));
 
         mvc.perform(put("/api/v1/allops/" + idStr)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -77,7 +77,33 @@ class AllopCrudIT {
 
         mvc.perform(get("/api/v1/allops"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(0));
+                .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @Test
+    void pagedFilteredList() throws Exception {
+        repository.deleteAll();
+        repository.flush();
+
+        for (String name : new String[] {"lamp b", "desk", "lamp a"}) {
+            mvc.perform(post("/api/v1/allops")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"productName": "%s", "boughtPrice": 1.0, "sellPrice": 2.0}
+                                    """.formatted(name)))
+                    .andExpect(status().isCreated());
+        }
+
+        mvc.perform(get("/api/v1/allops?q=lamp&size=1&sort=productName,asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].productName").value("lamp a"));
+
+        // Oversized pages are clamped to the configured maximum
+        mvc.perform(get("/api/v1/allops?size=100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(200));
     }
 
     static class ReflectionUtil {
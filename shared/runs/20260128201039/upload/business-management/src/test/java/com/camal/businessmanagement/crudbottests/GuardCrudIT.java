@@ -1,15 +1,15 @@
 package com.camal.businessmanagement.crudbottests;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
 
 import java.lang.reflect.Field;
 import java.time.Instant;
@@ -54,22 +54,23 @@ class GuardCrudIT {
                 .andExpect(status().isCreated())
                 .andReturn();
 
-        JsonNode created = om.readTree(createdRes.getResponse().getContentAsString());
+        JsonNode created = om.readTree(createdRes.getResponse().getContentAsString()).get("data");
         assertThat(created).isNotNull();
 
-        String idStr = created.get("id").asText();
+        String idStr = created.get("id").asString();
+        long version = created.get("version").asLong();
 
         mvc.perform(get("/api/v1/guards/" + idStr))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(idStr));
+                .andExpect(jsonPath("$.data.id").value(idStr));
 
         mvc.perform(get("/api/v1/guards"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(1));
+                .andExpect(jsonPath("$.data.totalElements").value(1));
 
         mvc.perform(put("/api/v1/guards/" + idStr)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(createJson))
+                        .content(createJson.replace("{", "{\"version\": " + version + ",")))
                 .andExpect(status().isOk());
 
         mvc.perform(delete("/api/v1/guards/" + idStr))
@@ -77,7 +78,7 @@ class GuardCrudIT {
 
         mvc.perform(get("/api/v1/guards"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(0));
+                .andExpect(jsonPath("$.data.totalElements").value(0));
     }
 
     static class ReflectionUtil {
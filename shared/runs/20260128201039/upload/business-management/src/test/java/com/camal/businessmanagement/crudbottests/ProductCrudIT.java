@@ -1,24 +1,40 @@
 package com.camal.businessmanagement.crudbottests;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.Field;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
+import static com.camal.businessmanagement.metrics.QueryCountMatchers.queryCount;
+import static com.camal.businessmanagement.metrics.QueryCountMatchers.queryCountAtMost;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.camal.businessmanagement.common.LeanResponseAdvice;
 import com.camal.businessmanagement.entity.Product;
 import com.camal.businessmanagement.repository.ProductRepository;
 
@@ -31,15 +47,17 @@ class ProductCrudIT {
     @Autowired private MockMvc mvc;
     @Autowired private ObjectMapper om;
     @Autowired private ProductRepository repository;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private EntityManagerFactory entityManagerFactory;
 
-
-    @Test
-    void fullCrudFlow() throws Exception {
-        // Arrange: ensure clean slate for this entity
+    @BeforeEach
+    void cleanSlate() {
         repository.deleteAll();
         repository.flush();
+    }
 
-
+    @Test
+    void fullCrudFlow() throws Exception {
         String createJson = """
                 {
                     "url": "https://example.com/product",
@@ -62,7 +80,7 @@ class ProductCrudIT {
         JsonNode created = om.readTree(createdRes.getResponse().getContentAsString()).get("data");
         assertThat(created).isNotNull();
 
-        String idStr = created.get("id").asText();
+        String idStr = created.get("id").asString();
         long version = created.get("version").asLong();
 
         // 2) Get
@@ -112,6 +130,810 @@ class ProductCrudIT {
                 .andExpect(jsonPath("$.data.totalElements").value(0));
     }
 
+    @Test
+    void sparseFieldsetsAndLeanProfile() throws Exception {
+        for (String name : new String[] {"b", "a", "c"}) {
+            createProduct("""
+                    {"productName": "%s", "boughtPrice": 1.0, "sellPrice": 2.5, "description": "not selected"}
+                    """.formatted(name));
+        }
+
+        // 1) Only the requested fields, in request order; page select plus count
+        mvc.perform(get("/api/v1/products?fields=productName,sellPrice&sort=productName,asc&size=2"))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(2))
+                .andExpect(jsonPath("$.data.items.length()").value(2))
+                .andExpect(jsonPath("$.data.items[0].productName").value("a"))
+                .andExpect(jsonPath("$.data.items[0].sellPrice").value(2.5))
+                .andExpect(jsonPath("$.data.items[0].description").doesNotExist())
+                .andExpect(jsonPath("$.data.items[0].id").doesNotExist())
+                .andExpect(jsonPath("$.data.totalElements").value(3));
+        mvc.perform(get("/api/v1/products/search?fields=id&productName=c&count=none"))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(1))
+                .andExpect(jsonPath("$.data.items.length()").value(1))
+                .andExpect(jsonPath("$.data.items[0].id").isNumber())
+                .andExpect(jsonPath("$.data.hasNext").value(false));
+
+        // 2) Unknown or hidden fields and cursor paging are rejected
+        mvc.perform(get("/api/v1/products?fields=productName,deleted"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/v1/products?fields=nope"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/v1/products?fields=id&cursor="))
+                .andExpect(status().isBadRequest());
+
+        // 3) Lean profile: no envelope, page metadata in headers, errors keep the envelope
+        mvc.perform(get("/api/v1/products?sort=productName,asc&size=2")
+                        .accept(LeanResponseAdvice.LEAN_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(LeanResponseAdvice.LEAN_JSON))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].productName").value("a"))
+                .andExpect(header().string(LeanResponseAdvice.TOTAL_COUNT, "3"))
+                .andExpect(header().string(LeanResponseAdvice.HAS_NEXT, "true"));
+        mvc.perform(get("/api/v1/products?fields=productName&productName=b")
+                        .accept(LeanResponseAdvice.LEAN_JSON))
+                .andExpect(jsonPath("$[0].productName").value("b"));
+        mvc.perform(get("/api/v1/products/999999").accept(LeanResponseAdvice.LEAN_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void cursorPagination() throws Exception {
+        for (String name : new String[] {"c", "a", "b"}) {
+            createProduct(name, 1.0, 2.0);
+        }
+
+        // 1) First page: no totals, cursor to the next page
+        MvcResult firstRes = mvc.perform(get("/api/v1/products?cursor=&size=2&sort=productName,asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(2))
+                .andExpect(jsonPath("$.data.items[0].productName").value("a"))
+                .andExpect(jsonPath("$.data.items[1].productName").value("b"))
+                .andExpect(jsonPath("$.data.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.data.nextCursor").exists())
+                .andReturn();
+
+        String cursor = om.readTree(firstRes.getResponse().getContentAsString())
+                .get("data").get("nextCursor").asString();
+
+        // 2) Last page: seeks past "b", no further cursor
+        mvc.perform(get("/api/v1/products/search?size=2&sort=productName,asc&cursor=" + cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(1))
+                .andExpect(jsonPath("$.data.items[0].productName").value("c"))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+
+        // 3) Garbage cursor -> 400
+        mvc.perform(get("/api/v1/products?cursor=not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void cursorPaginationPassesNullSortKeys() throws Exception {
+        String[][] rows = {{"n1", "u2"}, {"n2", null}, {"n3", "u1"}, {"n4", null}, {"n5", "u3"}};
+        for (String[] row : rows) {
+            createProduct("""
+                    {"productName": "%s", "url": %s, "boughtPrice": 1.0, "sellPrice": 2.0}
+                    """.formatted(row[0], row[1] == null ? "null" : "\"" + row[1] + "\""));
+        }
+
+        // Nulls sort as the largest value: last ascending, first descending, by id among themselves
+        assertThat(scrollNames("url,asc")).containsExactly("n3", "n1", "n5", "n2", "n4");
+        assertThat(scrollNames("url,desc")).containsExactly("n2", "n4", "n5", "n1", "n3");
+    }
+
+    private List<String> scrollNames(String sort) throws Exception {
+        List<String> names = new ArrayList<>();
+        String cursor = "";
+        for (int page = 0; cursor != null && page < 10; page++) {
+            MvcResult res = mvc.perform(get("/api/v1/products").param("size", "2").param("sort", sort).param("cursor", cursor))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            JsonNode data = om.readTree(res.getResponse().getContentAsString()).get("data");
+            data.get("items").forEach(item -> names.add(item.get("productName").asString()));
+            cursor = data.hasNonNull("nextCursor") ? data.get("nextCursor").asString() : null;
+        }
+        return names;
+    }
+
+    @Test
+    void countModes() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            createProduct("p" + i, 1.0, 2.0);
+        }
+
+        // 1) Default is an exact count
+        mvc.perform(get("/api/v1/products?size=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.countMode").value("EXACT"))
+                .andExpect(jsonPath("$.data.totalElements").value(3))
+                .andExpect(jsonPath("$.data.hasNext").value(true));
+
+        // 2) none -> slice without totals
+        mvc.perform(get("/api/v1/products?size=2&page=1&count=none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.countMode").value("NONE"))
+                .andExpect(jsonPath("$.data.items.length()").value(1))
+                .andExpect(jsonPath("$.data.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.data.hasNext").value(false));
+
+        // 3) estimate has no planner statistics on H2 -> reported as none
+        mvc.perform(get("/api/v1/products?size=2&count=estimate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.countMode").value("NONE"))
+                .andExpect(jsonPath("$.data.hasNext").value(true));
+        // Filtered lists are never estimated, whatever the database
+        mvc.perform(get("/api/v1/products?size=2&count=estimate&productName=p1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.countMode").value("NONE"))
+                .andExpect(jsonPath("$.data.totalElements").doesNotExist());
+        mvc.perform(get("/api/v1/products?size=2&count=estimate&productName=p1&fields=id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.countMode").value("NONE"));
+
+        // 4) Unknown mode -> 400
+        mvc.perform(get("/api/v1/products?count=sometimes"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void relevanceSort() throws Exception {
+        for (String name : new String[] {"old lamp", "lamp", "desk"}) {
+            createProduct(name, 1.0, 2.0);
+        }
+
+        // 1) Best match first, non-matching rows filtered out by q
+        mvc.perform(get("/api/v1/products/search?q=lamp&sort=relevance"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(2))
+                .andExpect(jsonPath("$.data.items[0].productName").value("lamp"))
+                .andExpect(jsonPath("$.data.items[1].productName").value("old lamp"));
+
+        // 2) Relevance has no keyset -> 400 in cursor mode
+        mvc.perform(get("/api/v1/products/search?q=lamp&sort=relevance&cursor="))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getByIdIsServedFromEntityCache() throws Exception {
+        JsonNode created = createProduct("cached", 1.0, 2.0);
+        String idStr = created.get("id").asString();
+
+        // 1) Repeated reads hit the "products" region
+        long hitsBefore = cacheStat("products", "CacheHits");
+        mvc.perform(get("/api/v1/products/" + idStr)).andExpect(status().isOk());
+        mvc.perform(get("/api/v1/products/" + idStr)).andExpect(status().isOk());
+        assertThat(cacheStat("products", "CacheHits")).isGreaterThan(hitsBefore);
+        assertThat(meterRegistry.get("cache.gets").tags("cache", "products", "result", "hit")
+                .functionCounter().count()).isGreaterThan(hitsBefore);
+
+        // 2) A write is visible to the next cached read
+        mvc.perform(patch("/api/v1/products/" + idStr)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"version": %d, "productName": "renamed"}
+                                """.formatted(created.get("version").asLong())))
+                .andExpect(status().isOk());
+        mvc.perform(get("/api/v1/products/" + idStr))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.productName").value("renamed"))
+                .andExpect(jsonPath("$.data.version").value(created.get("version").asLong() + 1));
+    }
+
+    @Test
+    void getByIdsInOneQuery() throws Exception {
+        String[] ids = new String[3];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = createProduct("batch" + i, 1.0, 2.0).get("id").asString();
+        }
+        mvc.perform(delete("/api/v1/products/" + ids[1])).andExpect(status().isNoContent());
+        entityManagerFactory.getCache().evict(Product.class);
+
+        // 1) One query for the uncached rows; request order, duplicates once, missing ids listed
+        mvc.perform(get("/api/v1/products?ids=" + ids[2] + ",999999," + ids[0] + "," + ids[1] + "," + ids[2]))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(1))
+                .andExpect(jsonPath("$.data.items.length()").value(2))
+                .andExpect(jsonPath("$.data.items[0].id").value(ids[2]))
+                .andExpect(jsonPath("$.data.items[1].id").value(ids[0]))
+                .andExpect(jsonPath("$.data.missing[0]").value(999999))
+                .andExpect(jsonPath("$.data.missing[1]").value(ids[1]));
+
+        // 2) Rows now in the entity cache are not queried again
+        mvc.perform(post("/api/v1/products/_mget")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"ids": [%s, %s]}
+                                """.formatted(ids[0], ids[2])))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(0))
+                .andExpect(jsonPath("$.data.items[0].id").value(ids[0]))
+                .andExpect(jsonPath("$.data.items[1].id").value(ids[2]))
+                .andExpect(jsonPath("$.data.missing.length()").value(0));
+
+        // 3) Malformed and oversized id lists
+        mvc.perform(get("/api/v1/products?ids=1,x"))
+                .andExpect(status().isBadRequest());
+        String tooMany = LongStream.rangeClosed(1, 201).mapToObj(Long::toString).collect(Collectors.joining(","));
+        mvc.perform(get("/api/v1/products?ids=" + tooMany))
+                .andExpect(status().isBadRequest());
+
+        // 4) ids with fields is a projected list with an unknown ids filter, not an ambiguous mapping
+        mvc.perform(get("/api/v1/products?ids=1,2&fields=id"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void bulkReportsEachItem() throws Exception {
+        // 1) Two valid creates, one invalid
+        MvcResult createdRes = mvc.perform(post("/api/v1/products/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"create": [
+                                    {"productName": "a", "boughtPrice": 1.0, "sellPrice": 2.0},
+                                    {"boughtPrice": 1.0, "sellPrice": 2.0},
+                                    {"productName": "c", "boughtPrice": 1.0, "sellPrice": 2.0}
+                                ]}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.total").value(3))
+                .andExpect(jsonPath("$.data.succeeded").value(2))
+                .andExpect(jsonPath("$.data.items[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.data.items[1].status").value("INVALID"))
+                .andExpect(jsonPath("$.data.items[2].status").value("CREATED"))
+                .andReturn();
+
+        JsonNode items = om.readTree(createdRes.getResponse().getContentAsString()).get("data").get("items");
+        long idA = items.get(0).get("id").asLong();
+        long idC = items.get(2).get("id").asLong();
+        long version = items.get(0).get("version").asLong();
+
+        // 2) Update with a good and a stale version, an unknown id, then a delete
+        mvc.perform(post("/api/v1/products/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"update": [
+                                    {"id": %d, "data": {"version": %d, "productName": "a2", "boughtPrice": 1.0, "sellPrice": 3.0}},
+                                    {"id": %d, "data": {"version": %d, "productName": "c2", "boughtPrice": 1.0, "sellPrice": 3.0}},
+                                    {"id": 999999, "data": {"version": 0, "productName": "x", "boughtPrice": 1.0, "sellPrice": 3.0}}
+                                 ],
+                                 "delete": [%d]}
+                                """.formatted(idA, version, idC, version + 5, idC)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.total").value(4))
+                .andExpect(jsonPath("$.data.items[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$.data.items[0].version").value(version + 1))
+                .andExpect(jsonPath("$.data.items[1].status").value("CONFLICT"))
+                .andExpect(jsonPath("$.data.items[2].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.data.items[3].operation").value("DELETE"))
+                .andExpect(jsonPath("$.data.items[3].status").value("DELETED"));
+
+        mvc.perform(get("/api/v1/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(1))
+                .andExpect(jsonPath("$.data.items[0].productName").value("a2"));
+
+        // 3) The deleted row is gone for bulk updates and deletes too
+        mvc.perform(post("/api/v1/products/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"update": [
+                                    {"id": %d, "data": {"version": %d, "productName": "c3", "boughtPrice": 1.0, "sellPrice": 3.0}}
+                                 ],
+                                 "delete": [%d]}
+                                """.formatted(idC, version + 1, idC)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.succeeded").value(0))
+                .andExpect(jsonPath("$.data.items[0].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.data.items[1].status").value("NOT_FOUND"));
+
+        // 4) Empty request -> 400
+        mvc.perform(post("/api/v1/products/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportStreamsRows() throws Exception {
+        for (String name : new String[] {"b", "a"}) {
+            createProduct("""
+                    {"productName": "%s", "boughtPrice": 1.5, "sellPrice": 2.0, "description": "x, \\"y\\""}
+                    """.formatted(name));
+        }
+
+        // 1) NDJSON: one object per line, in the requested order
+        MvcResult ndjson = mvc.perform(get("/api/v1/products/export?sort=productName,asc"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String[] lines = mvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(om.readTree(lines[0]).get("productName").asString()).isEqualTo("a");
+        // Streamed on the export pool, which has released its connection again
+        assertThat(meterRegistry.get("hikaricp.connections.acquire").tag("pool", "HikariPool-export")
+                .timer().count()).isPositive();
+        assertThat(meterRegistry.get("hikaricp.connections.active").tag("pool", "HikariPool-export")
+                .gauge().value()).isZero();
+
+        // 2) CSV: header, then quoted cells where needed
+        MvcResult csv = mvc.perform(get("/api/v1/products/export?format=csv&productName=a"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mvc.perform(asyncDispatch(csv))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"products.csv\""))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.split("\n")).hasSize(2);
+        assertThat(body).startsWith("id,version,url,productName,");
+        assertThat(body).contains(",a,1.5000,2.0000,\"x, \"\"y\"\"\",");
+
+        // 3) Unknown format -> 400
+        mvc.perform(get("/api/v1/products/export?format=xml"))
+                .andExpect(status().isBadRequest());
+
+        // 4) Invalid filter or sort -> 400 before the streaming response starts
+        mvc.perform(get("/api/v1/products/export?idIn=1,x"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/v1/products/export?sort=nope"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void conditionalRequestsUseVersionETags() throws Exception {
+        MvcResult createdRes = mvc.perform(post("/api/v1/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"productName": "e", "boughtPrice": 1.0, "sellPrice": 2.0}
+                                """))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists("ETag"))
+                .andReturn();
+        JsonNode created = om.readTree(createdRes.getResponse().getContentAsString()).get("data");
+        String idStr = created.get("id").asString();
+        String etag = createdRes.getResponse().getHeader("ETag");
+        assertThat(etag).isEqualTo("\"" + idStr + "-" + created.get("version").asLong() + "\"");
+
+        // 1) Single resource: version ETag, 304 without a body while it is current
+        mvc.perform(get("/api/v1/products/" + idStr))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag));
+        mvc.perform(get("/api/v1/products/" + idStr).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        // 2) List page: ETag that changes when an item is written
+        MvcResult listRes = mvc.perform(get("/api/v1/products"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String listTag = listRes.getResponse().getHeader("ETag");
+        assertThat(listTag).startsWith("W/\"");
+        mvc.perform(get("/api/v1/products").header("If-None-Match", listTag))
+                .andExpect(status().isNotModified());
+
+        // 3) If-Match replaces the body version: stale -> 412, current -> 200 with the new ETag
+        MvcResult patchedRes = mvc.perform(patch("/api/v1/products/" + idStr)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"productName": "e2"}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.version").value(created.get("version").asLong() + 1))
+                .andReturn();
+        String newEtag = patchedRes.getResponse().getHeader("ETag");
+        assertThat(newEtag).isNotEqualTo(etag);
+        mvc.perform(put("/api/v1/products/" + idStr)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"productName": "e3", "boughtPrice": 1.0, "sellPrice": 2.0}
+                                """))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.data.errorCode").value("PRECONDITION_FAILED"));
+        mvc.perform(patch("/api/v1/products/" + idStr)
+                        .header("If-Match", "\"999999-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isPreconditionFailed());
+        // The weak form a gzipped response carries names the same version
+        mvc.perform(patch("/api/v1/products/" + idStr)
+                        .header("If-Match", "W/" + etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isPreconditionFailed());
+        MvcResult weakRes = mvc.perform(patch("/api/v1/products/" + idStr)
+                        .header("If-Match", "W/" + newEtag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"productName": "e4"}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.version").value(created.get("version").asLong() + 2))
+                .andReturn();
+        String latestEtag = weakRes.getResponse().getHeader("ETag");
+
+        // 4) Old tags no longer short-circuit, neither on the item nor on the list
+        mvc.perform(get("/api/v1/products/" + idStr).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", latestEtag));
+        mvc.perform(get("/api/v1/products").header("If-None-Match", listTag))
+                .andExpect(status().isOk());
+
+        // 5) Neither If-Match nor a body version -> 400
+        mvc.perform(patch("/api/v1/products/" + idStr)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void notModifiedSkipsLoadingTheRow() throws Exception {
+        MvcResult createdRes = mvc.perform(post("/api/v1/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"productName": "n", "boughtPrice": 1.0, "sellPrice": 2.0, "description": "long text"}
+                                """))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String idStr = om.readTree(createdRes.getResponse().getContentAsString()).get("data").get("id").asString();
+        String etag = createdRes.getResponse().getHeader("ETag");
+
+        var getTimer = meterRegistry.get("app.service")
+                .tags("entity", "product", "operation", "get", "outcome", "success").timer();
+        var queries = meterRegistry.get("app.request.queries").tags("method", "GET", "uri", "/api/v1/products/{id}");
+
+        // 1) Not in the entity cache: one version-only select, the row is neither loaded nor mapped
+        entityManagerFactory.getCache().evict(Product.class);
+        long gets = getTimer.count();
+        double statements = queries.summary().totalAmount();
+        mvc.perform(get("/api/v1/products/" + idStr).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+        assertThat(getTimer.count()).isEqualTo(gets);
+        assertThat(queries.summary().totalAmount() - statements).isEqualTo(1);
+        assertThat(entityManagerFactory.getCache().contains(Product.class, Long.valueOf(idStr))).isFalse();
+
+        // 2) In the entity cache: still the version-only select, the cached row is not assembled
+        mvc.perform(get("/api/v1/products/" + idStr)).andExpect(status().isOk());
+        gets = getTimer.count();
+        statements = queries.summary().totalAmount();
+        mvc.perform(get("/api/v1/products/" + idStr).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        assertThat(getTimer.count()).isEqualTo(gets);
+        assertThat(queries.summary().totalAmount() - statements).isEqualTo(1);
+
+        // 3) Deleted rows are never "not modified"
+        mvc.perform(delete("/api/v1/products/" + idStr)).andExpect(status().isNoContent());
+        entityManagerFactory.getCache().evict(Product.class);
+        mvc.perform(get("/api/v1/products/" + idStr).header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void versionCheckedDelete() throws Exception {
+        JsonNode created = createProduct("d", 1.0, 2.0);
+        String idStr = created.get("id").asString();
+        long version = created.get("version").asLong();
+
+        // Warm the entity cache so the delete has to evict it
+        mvc.perform(get("/api/v1/products/" + idStr)).andExpect(status().isOk());
+
+        // 1) Stale version -> 409, unknown id -> 404
+        mvc.perform(delete("/api/v1/products/" + idStr + "?version=" + (version + 1)))
+                .andExpect(status().isConflict());
+        mvc.perform(delete("/api/v1/products/999999"))
+                .andExpect(status().isNotFound());
+
+        // 2) Matching version -> 204, and the cached copy is not served afterwards
+        mvc.perform(delete("/api/v1/products/" + idStr + "?version=" + version))
+                .andExpect(status().isNoContent());
+        mvc.perform(get("/api/v1/products/" + idStr))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.version").value(version + 1));
+        mvc.perform(get("/api/v1/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(0));
+
+        // 3) Deleting again -> 204 without a version or with the current one, 409 with an
+        //    older one, and the row is not touched
+        mvc.perform(delete("/api/v1/products/" + idStr))
+                .andExpect(status().isNoContent());
+        mvc.perform(delete("/api/v1/products/" + idStr + "?version=" + (version + 1)))
+                .andExpect(status().isNoContent());
+        mvc.perform(delete("/api/v1/products/" + idStr + "?version=" + version))
+                .andExpect(status().isConflict());
+        mvc.perform(get("/api/v1/products/" + idStr))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.version").value(version + 1));
+    }
+
+    @Test
+    void filterPlansAreCachedPerShape() throws Exception {
+        var hits = meterRegistry.get("cache.gets").tags("cache", "filter.plans", "result", "hit").functionCounter();
+        var misses = meterRegistry.get("cache.gets").tags("cache", "filter.plans", "result", "miss").functionCounter();
+
+        // 1) Same parameter names with other values reuse the plan; order is irrelevant
+        mvc.perform(get("/api/v1/products?productName=plan&minSellPrice=1&maxBoughtPrice=100"))
+                .andExpect(status().isOk());
+        double hitsBefore = hits.count();
+        double missesBefore = misses.count();
+        mvc.perform(get("/api/v1/products?maxBoughtPrice=5&productName=other&minSellPrice=2"))
+                .andExpect(status().isOk());
+        assertThat(hits.count()).isGreaterThan(hitsBefore);
+        assertThat(misses.count()).isEqualTo(missesBefore);
+
+        // 2) Blank values do not change the shape
+        mvc.perform(get("/api/v1/products?productName=x&minSellPrice=3&maxBoughtPrice=9&url="))
+                .andExpect(status().isOk());
+        assertThat(misses.count()).isEqualTo(missesBefore);
+
+        // 3) Values are validated when bound
+        mvc.perform(get("/api/v1/products?minSellPrice=abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.data.errorCode").value("BAD_REQUEST"));
+    }
+
+    @Test
+    void filtersCoverEveryAttribute() throws Exception {
+        String[] ids = new String[3];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = createProduct("attr" + i, 1.0, i + 1.0).get("id").asString();
+        }
+
+        // 1) IN lists, ranges on audit columns, exact matches on numbers
+        mvc.perform(get("/api/v1/products?idIn=" + ids[0] + "," + ids[2] + "&sort=id,asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(2))
+                .andExpect(jsonPath("$.data.items[1].id").value(ids[2]));
+        mvc.perform(get("/api/v1/products?productNameIn=attr1,attr9&minCreatedAt=2000-01-01T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(1))
+                .andExpect(jsonPath("$.data.items[0].id").value(ids[1]));
+        mvc.perform(get("/api/v1/products?sellPrice=3&version=0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[0].id").value(ids[2]));
+
+        // 2) Unknown parameters and sort properties, soft-delete flag
+        mvc.perform(get("/api/v1/products?relationId=1"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/v1/products?deleted=true"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/v1/products?sort=nope,asc"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void filterExpressionReplacesSeveralCalls() throws Exception {
+        String[] ids = new String[4];
+        String[] names = {"abc one", "cheap abc", "other", "expensive"};
+        int[] prices = {20, 5, 30, 40};
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = createProduct(names[i], 1.0, prices[i]).get("id").asString();
+        }
+
+        // 1) OR group and IN list in one statement (the count is skipped on a short first page),
+        //    and combined with plain parameters
+        mvc.perform(get("/api/v1/products")
+                        .param("filter", "sellPrice>10 and (productName~'ABC' or id in (" + ids[2] + ", 0))")
+                        .param("sort", "sellPrice,asc"))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(1))
+                .andExpect(jsonPath("$.data.totalElements").value(2))
+                .andExpect(jsonPath("$.data.items[0].id").value(ids[0]))
+                .andExpect(jsonPath("$.data.items[1].id").value(ids[2]));
+        mvc.perform(get("/api/v1/products")
+                        .param("filter", "productName~'abc' or sellPrice>=40")
+                        .param("maxSellPrice", "20")
+                        .param("count", "estimate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(2))
+                .andExpect(jsonPath("$.data.countMode").value("NONE"));
+
+        // 2) Type and syntax errors are 400s that point at the problem
+        mvc.perform(get("/api/v1/products").param("filter", "sellPrice>'cheap'"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid filter at 11: invalid value for sellPrice: cheap"));
+        mvc.perform(get("/api/v1/products").param("filter", "sellPrice>10 or"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void statsAreAggregatedByTheDatabase() throws Exception {
+        String[] names = {"stat a", "stat b", "stat c", "other", "stat deleted"};
+        int[][] prices = {{4, 10}, {15, 20}, {10, 30}, {20, 50}, {1, 1000}};
+        String deletedId = null;
+        for (int i = 0; i < names.length; i++) {
+            deletedId = createProduct(names[i], prices[i][0], prices[i][1]).get("id").asString();
+        }
+        mvc.perform(delete("/api/v1/products/" + deletedId)).andExpect(status().isNoContent());
+
+        // 1) Aggregates and percentiles in one statement, the histogram in a second; margins 5, 6, 20, 30
+        mvc.perform(get("/api/v1/products/stats").param("buckets", "4"))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(2))
+                .andExpect(jsonPath("$.data.count").value(4))
+                .andExpect(jsonPath("$.data.sellPrice.sum").value(110.0))
+                .andExpect(jsonPath("$.data.sellPrice.avg").value(27.5))
+                .andExpect(jsonPath("$.data.sellPrice.min").value(10.0))
+                .andExpect(jsonPath("$.data.sellPrice.max").value(50.0))
+                .andExpect(jsonPath("$.data.boughtPrice.sum").value(49.0))
+                .andExpect(jsonPath("$.data.margin.sum").value(61.0))
+                .andExpect(jsonPath("$.data.margin.avg").value(15.25))
+                .andExpect(jsonPath("$.data.margin.min").value(5.0))
+                .andExpect(jsonPath("$.data.margin.max").value(30.0))
+                .andExpect(jsonPath("$.data.marginPercentiles.p25").value(5.75))
+                .andExpect(jsonPath("$.data.marginPercentiles.p50").value(13.0))
+                .andExpect(jsonPath("$.data.sellPriceHistogram.length()").value(4))
+                .andExpect(jsonPath("$.data.sellPriceHistogram[0].from").value(10.0))
+                .andExpect(jsonPath("$.data.sellPriceHistogram[0].to").value(20.0))
+                .andExpect(jsonPath("$.data.sellPriceHistogram[0].count").value(1))
+                .andExpect(jsonPath("$.data.sellPriceHistogram[3].from").value(40.0))
+                .andExpect(jsonPath("$.data.sellPriceHistogram[3].to").value(50.0))
+                .andExpect(jsonPath("$.data.sellPriceHistogram[3].count").value(1));
+
+        // 2) List filters apply; the same filter in another order is served from the cache
+        mvc.perform(get("/api/v1/products/stats").param("productName", "stat").param("buckets", "2")
+                        .param("filter", "sellPrice<=30"))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(2))
+                .andExpect(jsonPath("$.data.count").value(3))
+                .andExpect(jsonPath("$.data.margin.max").value(20.0))
+                .andExpect(jsonPath("$.data.sellPriceHistogram[0].count").value(1))
+                .andExpect(jsonPath("$.data.sellPriceHistogram[1].count").value(2));
+        mvc.perform(get("/api/v1/products/stats").param("filter", "sellPrice<=30").param("buckets", "2")
+                        .param("productName", "stat").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(0))
+                .andExpect(jsonPath("$.data.count").value(3));
+
+        // 3) Nothing matches: counts only, no histogram statement
+        mvc.perform(get("/api/v1/products/stats").param("productName", "nothing"))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(1))
+                .andExpect(jsonPath("$.data.count").value(0))
+                .andExpect(jsonPath("$.data.sellPrice.sum").doesNotExist())
+                .andExpect(jsonPath("$.data.sellPriceHistogram.length()").value(0));
+
+        // 4) Bad bucket counts and filters
+        mvc.perform(get("/api/v1/products/stats").param("buckets", "0"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/v1/products/stats").param("buckets", "x"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/v1/products/stats").param("nope", "1"))
+                .andExpect(status().isBadRequest());
+        // buckets belongs to the stats endpoint only
+        mvc.perform(get("/api/v1/products").param("buckets", "4"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void serviceAndQueryMetrics() throws Exception {
+        String idStr = createProduct("m", 1.0, 2.0).get("id").asString();
+
+        mvc.perform(get("/api/v1/products/" + idStr)).andExpect(status().isOk());
+        mvc.perform(get("/api/v1/products/999999")).andExpect(status().isNotFound());
+
+        // 1) Service timers by entity, operation and outcome
+        assertThat(meterRegistry.get("app.service")
+                .tags("entity", "product", "operation", "get", "outcome", "success").timer().count())
+                .isPositive();
+        assertThat(meterRegistry.get("app.service")
+                .tags("entity", "product", "operation", "get", "outcome", "not_found").timer().count())
+                .isPositive();
+
+        // 2) Handler outcome
+        assertThat(meterRegistry.get("app.errors")
+                .tags("status", "404", "code", "NOT_FOUND", "uri", "/api/v1/products/{id}").counter().count())
+                .isPositive();
+
+        // 3) Statements and rows of the create request (at least the insert, one row)
+        var queries = meterRegistry.get("app.request.queries").tags("method", "POST", "uri", "/api/v1/products").summary();
+        var rows = meterRegistry.get("app.request.rows").tags("method", "POST", "uri", "/api/v1/products").summary();
+        assertThat(queries.max()).isGreaterThanOrEqualTo(1);
+        assertThat(rows.max()).isGreaterThanOrEqualTo(1);
+        // Database time is measured in nanoseconds, so a fast insert does not round down to 0
+        assertThat(meterRegistry.get("app.request.db").tags("method", "POST", "uri", "/api/v1/products").timer()
+                .totalTime(TimeUnit.NANOSECONDS)).isPositive();
+    }
+
+    @Test
+    void connectionPoolMetrics() throws Exception {
+        mvc.perform(get("/api/v1/products/999999")).andExpect(status().isNotFound());
+
+        // Hikari stays visible behind the statement-counting proxy
+        assertThat(meterRegistry.get("hikaricp.connections.acquire").timer().count()).isPositive();
+        assertThat(meterRegistry.get("hikaricp.connections.active").gauge().value()).isNotNegative();
+        assertThat(meterRegistry.get("hikaricp.connections.idle").gauge().value()).isNotNegative();
+        assertThat(meterRegistry.get("hikaricp.connections.pending").gauge().value()).isNotNegative();
+        assertThat(meterRegistry.get("hikaricp.connections.timeout").counter().count()).isZero();
+    }
+
+    @Test
+    void statementCountsPerEndpoint() throws Exception {
+        // 1) Create: the insert, plus a sequence call when the pooled id block runs out
+        MvcResult createdRes = mvc.perform(post("/api/v1/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"productName": "s", "boughtPrice": 1.0, "sellPrice": 2.0}
+                                """))
+                .andExpect(status().isCreated())
+                .andExpect(queryCountAtMost(2))
+                .andReturn();
+        String idStr = om.readTree(createdRes.getResponse().getContentAsString()).get("data").get("id").asString();
+
+        // 2) Get is served from the entity cache; a miss costs one select
+        mvc.perform(get("/api/v1/products/" + idStr))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(0));
+        mvc.perform(get("/api/v1/products/999999"))
+                .andExpect(status().isNotFound())
+                .andExpect(queryCount(1));
+
+        // 3) Writes: one statement each (the row is loaded from the cache)
+        mvc.perform(patch("/api/v1/products/" + idStr)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"version": 0, "sellPrice": 3.0}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(1));
+        mvc.perform(delete("/api/v1/products/" + idStr))
+                .andExpect(status().isNoContent())
+                .andExpect(queryCount(1));
+
+        // 4) List: page select plus count, whatever the page size (no per-row selects)
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < 30; i++) {
+            items.append(i == 0 ? "" : ",").append("""
+                    {"productName": "s%d", "boughtPrice": 1.0, "sellPrice": 2.0}
+                    """.formatted(i));
+        }
+        mvc.perform(post("/api/v1/products/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"create\": [" + items + "]}"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/api/v1/products?size=10"))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(2));
+        mvc.perform(get("/api/v1/products?size=25&count=none"))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(1));
+    }
+
+    /** Creates a product with the given prices and no optional fields; returns the {@code data} of the response. */
+    private JsonNode createProduct(String name, Number boughtPrice, Number sellPrice) throws Exception {
+        return createProduct(om.writeValueAsString(
+                Map.of("productName", name, "boughtPrice", boughtPrice, "sellPrice", sellPrice)));
+    }
+
+    /** Posts the JSON body as a new product, expects 201 and returns the {@code data} of the response. */
+    private JsonNode createProduct(String json) throws Exception {
+        MvcResult res = mvc.perform(post("/api/v1/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return om.readTree(res.getResponse().getContentAsString()).get("data");
+    }
+
+    /** Reads a JCache statistics attribute for a cache region from the platform MBean server. */
+    private static long cacheStat(String region, String attribute) throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Set<ObjectName> names = server.queryNames(
+                new ObjectName("javax.cache:type=CacheStatistics,CacheManager=*,Cache=" + region), null);
+        assertThat(names).hasSize(1);
+        return ((Number) server.getAttribute(names.iterator().next(), attribute)).longValue();
+    }
+
     /** Reflection helpers so tests don't depend on Lombok setters. */
     static class ReflectionUtil {
         static void fillDefaults(Object entity) {
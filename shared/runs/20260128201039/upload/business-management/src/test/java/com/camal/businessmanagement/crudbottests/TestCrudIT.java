@@ -1,15 +1,15 @@
 package com.camal.businessmanagement.crudbottests;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
 
 import java.lang.reflect.Field;
 import java.time.Instant;
@@ -19,7 +19,6 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-import com.camal.businessmanagement.entity.Test;
 import com.camal.businessmanagement.repository.TestRepository;
 
 
@@ -62,7 +61,7 @@ class TestCrudIT {
         JsonNode created = om.readTree(createdRes.getResponse().getContentAsString()).get("data");
         assertThat(created).isNotNull();
 
-        String idStr = created.get("id").asText();
+        String idStr = created.get("id").asString();
         long version = created.get("version").asLong();
 
         // 2) Get
@@ -80,7 +79,7 @@ class TestCrudIT {
         // 4) Patch (valid version)
         String patchJson = "{\n" +
                 "            \"version\": " + version + ",\n" +
-                "            \"url\": "test2"\n" +
+                "            \"url\": \"test2\"\n" +
                 "        }";
         MvcResult patchedRes = mvc.perform(patch("/api/v1/tests/" + idStr)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -0,0 +1,149 @@
+package com.camal.businessmanagement.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two in-memory H2 databases stand in for a primary and its replica. Nothing replicates
+ * between them, so a row that only exists on the replica shows which one served a read.
+ * The lag is read from a {@code replica_lag} table the test controls.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingIT.PRIMARY_URL,
+        "app.datasource.replicas[0].url=" + ReplicaRoutingIT.REPLICA_URL,
+        "app.datasource.max-lag=5s",
+        "app.datasource.check-interval=1h",
+        "app.datasource.lag-query=select lag_seconds from replica_lag",
+        "app.datasource.read-your-writes=5s"
+})
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class ReplicaRoutingIT {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false";
+
+    @Autowired private MockMvc mvc;
+    @Autowired @Qualifier("replicaRoutingDataSource") private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void copySchemaToReplica() throws SQLException {
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            ResultSet tables = statement.executeQuery(
+                    "select count(*) from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'products'");
+            tables.next();
+            if (tables.getInt(1) == 0) {
+                for (String ddl : schemaOfPrimary()) {
+                    statement.execute(ddl);
+                }
+                statement.execute("create table replica_lag (lag_seconds double precision)");
+                statement.execute("insert into replica_lag values (0)");
+            }
+            statement.execute("update replica_lag set lag_seconds = 0");
+        }
+        routing.checkReplicas();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() throws Exception {
+        insertOnReplica("replica-only");
+
+        mvc.perform(get("/api/v1/products").param("productName", "replica-only").param("count", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(1));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() throws Exception {
+        insertOnReplica("lagging");
+        setReplicaLag(30);
+        routing.checkReplicas();
+
+        mvc.perform(get("/api/v1/products").param("productName", "lagging").param("count", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(0));
+
+        setReplicaLag(0);
+        routing.checkReplicas();
+
+        mvc.perform(get("/api/v1/products").param("productName", "lagging").param("count", "none"))
+                .andExpect(jsonPath("$.data.items.length()").value(1));
+    }
+
+    @Test
+    void writesPinTheClientToPrimary() throws Exception {
+        String name = "ryw-" + System.nanoTime();
+        MvcResult created = mvc.perform(post("/api/v1/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productName\":\"" + name + "\",\"boughtPrice\":1.00,\"sellPrice\":2.00}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Cookie pin = created.getResponse().getCookie(ReadYourWrites.COOKIE);
+        assertThat(pin).isNotNull();
+        assertThat(pin.isHttpOnly()).isTrue();
+
+        // The write never reached the replica: only a pinned client sees it
+        mvc.perform(get("/api/v1/products").param("productName", name).param("count", "none").cookie(pin))
+                .andExpect(jsonPath("$.data.items.length()").value(1));
+        mvc.perform(get("/api/v1/products").param("productName", name).param("count", "none"))
+                .andExpect(jsonPath("$.data.items.length()").value(0));
+
+        Cookie expired = new Cookie(ReadYourWrites.COOKIE, String.valueOf(System.currentTimeMillis() - 1));
+        mvc.perform(get("/api/v1/products").param("productName", name).param("count", "none").cookie(expired))
+                .andExpect(jsonPath("$.data.items.length()").value(0));
+    }
+
+    private static List<String> schemaOfPrimary() throws SQLException {
+        List<String> statements = new ArrayList<>();
+        try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+             Statement statement = primary.createStatement();
+             ResultSet script = statement.executeQuery("script nodata nopasswords nosettings")) {
+            while (script.next()) {
+                String sql = script.getString(1);
+                if (!sql.startsWith("CREATE USER")) {
+                    statements.add(sql);
+                }
+            }
+        }
+        return statements;
+    }
+
+    private static void insertOnReplica(String productName) throws SQLException {
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("insert into products (id, product_name, created_at, version, deleted) "
+                    + "values (next value for products_seq, '" + productName + "', current_timestamp, 0, false)");
+        }
+    }
+
+    private static void setReplicaLag(double seconds) throws SQLException {
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("update replica_lag set lag_seconds = " + seconds);
+        }
+    }
+}
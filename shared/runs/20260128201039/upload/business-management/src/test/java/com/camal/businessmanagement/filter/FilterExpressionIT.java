@@ -0,0 +1,113 @@
+package com.camal.businessmanagement.filter;
+
+import com.camal.businessmanagement.entity.Masson;
+import com.camal.businessmanagement.exception.BadRequestException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class FilterExpressionIT {
+
+    @Autowired private FilterCompiler compiler;
+    @Autowired private EntityManager entityManager;
+
+    private final Map<String, Long> ids = new HashMap<>();
+
+    @BeforeEach
+    void seed() {
+        persist("Hiram", "40", "master");
+        persist("Jacques", "35", "apprentice");
+        persist("O'Neil", null, "master");
+        Masson deleted = Masson.builder().name("Hidden").age("40").massonType("master").deleted(true).build();
+        entityManager.persist(deleted);
+        entityManager.flush();
+    }
+
+    @Test
+    void combinesComparisonsIntoOneQuery() {
+        assertThat(find("massonType='master' and (name~'HIR' or age is null)"))
+                .containsExactlyInAnyOrder("Hiram", "O'Neil");
+        assertThat(find("name in ('Hiram', 'Jacques') and not age='40'")).containsExactly("Jacques");
+        assertThat(find("name='O''Neil'")).containsExactly("O'Neil");
+        assertThat(find("id>=" + ids.get("Jacques") + " AND id<=" + ids.get("O'Neil")))
+                .containsExactlyInAnyOrder("Jacques", "O'Neil");
+        assertThat(find("id in (" + ids.get("Hiram") + "," + ids.get("O'Neil") + ") or massonType!='master'"))
+                .containsExactlyInAnyOrder("Hiram", "Jacques", "O'Neil");
+        assertThat(find("createdAt < 2000-01-01T00:00:00Z")).isEmpty();
+        assertThat(find("name='Hidden'")).isEmpty();
+    }
+
+    @Test
+    void likeWildcardsMatchLiterally() {
+        persist("50% off", "40", "master");
+        persist("a_b", "40", "master");
+        persist("back\\slash", "40", "master");
+        entityManager.flush();
+
+        assertThat(find("name~'%'")).containsExactly("50% off");
+        assertThat(find("name~'_'")).containsExactly("a_b");
+        assertThat(find("name~'\\'")).containsExactly("back\\slash");
+        assertThat(find(Map.of("name", "%"))).containsExactly("50% off");
+        assertThat(find(Map.of("q", "_"))).containsExactly("a_b");
+        assertThat(find(Map.of("q", "0%"))).containsExactly("50% off");
+    }
+
+    @Test
+    void rejectsInvalidExpressions() {
+        assertInvalid("deleted=true", "unknown attribute 'deleted'");
+        assertInvalid("nope=1", "unknown attribute 'nope'");
+        assertInvalid("id>abc", "invalid value for id");
+        assertInvalid("name>'a'", "needs a number or date");
+        assertInvalid("id~'1'", "needs a text attribute");
+        assertInvalid("(name='a'", "expected ')'");
+        assertInvalid("name='a' name='b'", "unexpected 'name'");
+        assertInvalid("name='a", "unterminated string");
+        assertInvalid("name is 'x'", "expected null");
+        assertInvalid("(".repeat(FilterExpression.MAX_DEPTH + 1) + "name='a'" + ")".repeat(FilterExpression.MAX_DEPTH + 1),
+                "nested more than");
+        assertInvalid("name='" + "a".repeat(FilterExpression.MAX_LENGTH) + "'", "longer than");
+    }
+
+    private void assertInvalid(String filter, String message) {
+        assertThatThrownBy(() -> compiler.specification(Masson.class, Map.of("filter", filter)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining(message);
+    }
+
+    private List<String> find(String filter) {
+        return find(Map.of("filter", filter));
+    }
+
+    private List<String> find(Map<String, String> params) {
+        Specification<Masson> spec = compiler.specification(Masson.class, params);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Masson> query = cb.createQuery(Masson.class);
+        Root<Masson> root = query.from(Masson.class);
+        query.where(spec.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getResultList().stream().map(Masson::getName).toList();
+    }
+
+    private void persist(String name, String age, String type) {
+        Masson masson = Masson.builder().name(name).age(age).massonType(type).build();
+        entityManager.persist(masson);
+        ids.put(name, masson.getId());
+    }
+}
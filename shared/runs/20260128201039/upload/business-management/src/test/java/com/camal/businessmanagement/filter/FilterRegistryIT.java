@@ -0,0 +1,100 @@
+package com.camal.businessmanagement.filter;
+
+import com.camal.businessmanagement.entity.Masson;
+import com.camal.businessmanagement.exception.BadRequestException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Masson has no controller or service, so it shows that any mapped entity gets filters
+ * from its metadata alone.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class FilterRegistryIT {
+
+    @Autowired private FilterRegistry registry;
+    @Autowired private FilterCompiler compiler;
+    @Autowired private EntityManager entityManager;
+
+    @Test
+    void definitionIsDerivedFromTheMetamodel() {
+        FilterDefinition<Masson> masson = registry.definition(Masson.class);
+
+        assertThat(masson.fields()).extracting(FilterField::param).containsExactly(
+                "q",
+                "id", "minId", "maxId", "idIn",
+                "name", "nameIn",
+                "age", "ageIn",
+                "massonType", "massonTypeIn",
+                "createdAt", "minCreatedAt", "maxCreatedAt", "createdAtIn",
+                "updatedAt", "minUpdatedAt", "maxUpdatedAt", "updatedAtIn",
+                "createdBy", "createdByIn",
+                "updatedBy", "updatedByIn",
+                "version", "minVersion", "maxVersion", "versionIn");
+        assertThat(masson.searchAttributes()).containsExactly("name");
+        assertThat(masson.softDeleteAttribute()).isEqualTo("deleted");
+        assertThat(masson.sortable()).contains("name", "createdAt").doesNotContain("deleted");
+
+        assertThatThrownBy(() -> registry.definition(String.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parametersAndSortAreValidated() {
+        FilterDefinition<Masson> masson = registry.definition(Masson.class);
+
+        assertThat(masson.shape(Map.of("page", "0", "size", "5", "sort", "name", "name", " "))).isZero();
+        assertThatThrownBy(() -> masson.shape(Map.of("deleted", "true")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("deleted");
+        assertThatThrownBy(() -> compiler.specification(Masson.class, Map.of("idIn", "1,x")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("idIn");
+        assertThatThrownBy(() -> compiler.specification(Masson.class, Map.of(), Sort.by("nope")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("nope");
+    }
+
+    @Test
+    @Transactional
+    void filtersTranslateToOneQuery() {
+        for (String name : new String[] {"Hiram", "Jacques", "Hugues"}) {
+            Masson masson = Masson.builder().name(name).age("40").massonType("master").build();
+            entityManager.persist(masson);
+        }
+        Masson deleted = Masson.builder().name("Hidden").deleted(true).build();
+        entityManager.persist(deleted);
+        entityManager.flush();
+
+        assertThat(find(Map.of("q", "h"))).containsExactlyInAnyOrder("Hiram", "Hugues");
+        assertThat(find(Map.of("nameIn", "Hiram,Hugues,Hidden"))).containsExactlyInAnyOrder("Hiram", "Hugues");
+        assertThat(find(Map.of("name", "ACQ", "massonType", "mast"))).containsExactly("Jacques");
+        assertThat(find(Map.of("maxCreatedAt", Instant.now().minusSeconds(3600).toString()))).isEmpty();
+    }
+
+    private List<String> find(Map<String, String> params) {
+        Specification<Masson> spec = compiler.specification(Masson.class, params);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Masson> query = cb.createQuery(Masson.class);
+        Root<Masson> root = query.from(Masson.class);
+        query.where(spec.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getResultList().stream().map(Masson::getName).toList();
+    }
+}
@@ -0,0 +1,255 @@
+package com.camal.businessmanagement.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mixed create/get/list/update/delete traffic against the four {@code /api/v1/*} resources
+ * on an embedded server. Latencies per endpoint go into HdrHistograms; p50/p99/p999 and
+ * throughput are compared with {@code src/test/resources/load/baseline.json}.
+ * <p>
+ * Run with {@code gradle loadTest}. System properties: {@code load.threads},
+ * {@code load.warmupSeconds}, {@code load.durationSeconds}, {@code load.tolerance},
+ * {@code load.slackMillis}, and {@code load.updateBaseline=true} to rewrite the baseline
+ * from the current run. {@code spring.datasource.*} properties point it at a local
+ * PostgreSQL instead of H2.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class CrudLoadIT {
+
+    private static final Logger log = LoggerFactory.getLogger(CrudLoadIT.class);
+
+    private static final List<String> RESOURCES = List.of("products", "allops", "guards", "tests");
+    private static final int SEED_ROWS = 20;
+
+    private static final int THREADS = Integer.getInteger("load.threads", 4);
+    private static final long WARMUP_SECONDS = Long.getLong("load.warmupSeconds", 10);
+    private static final long DURATION_SECONDS = Long.getLong("load.durationSeconds", 30);
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("load.tolerance", "2.0"));
+    private static final double SLACK_MILLIS = Double.parseDouble(System.getProperty("load.slackMillis", "5"));
+    private static final Path BASELINE = Path.of(System.getProperty("load.baselineFile", "src/test/resources/load/baseline.json"));
+    private static final Path REPORT = Path.of("build/reports/load/latest.json");
+
+    @LocalServerPort private int port;
+
+    private final ObjectMapper json = JsonMapper.builder().build();
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final AtomicLong errors = new AtomicLong();
+
+    private volatile boolean recording;
+
+    @Test
+    void mixedCrudTrafficStaysWithinBaseline() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            workers.add(executor.submit(() -> new Worker().run(end)));
+        }
+        TimeUnit.NANOSECONDS.sleep(warmupEnd - System.nanoTime());
+        histograms.clear();
+        errors.set(0);
+        recording = true;
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        recording = false;
+        executor.shutdown();
+
+        Map<String, LoadBaseline.Stats> stats = new TreeMap<>();
+        histograms.forEach((endpoint, histogram) ->
+                stats.put(endpoint, LoadBaseline.Stats.of(histogram, DURATION_SECONDS)));
+        stats.forEach((endpoint, s) -> log.info("{}: p50 {} ms, p99 {} ms, p999 {} ms, {} req/s",
+                endpoint, s.p50Ms(), s.p99Ms(), s.p999Ms(), s.throughput()));
+        LoadBaseline.write(REPORT, stats);
+
+        assertThat(errors.get()).as("failed requests").isZero();
+        assertThat(stats.keySet()).hasSize(RESOURCES.size() * Operation.values().length);
+        if (Boolean.getBoolean("load.updateBaseline")) {
+            LoadBaseline.write(BASELINE, stats);
+            log.info("Baseline written to {}", BASELINE.toAbsolutePath());
+            return;
+        }
+        assertThat(LoadBaseline.regressions(LoadBaseline.read(BASELINE), stats, TOLERANCE, SLACK_MILLIS))
+                .as("regressions against %s", BASELINE)
+                .isEmpty();
+    }
+
+    private enum Operation {
+        CREATE(10), GET(35), LIST(35), UPDATE(15), DELETE(5);
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+
+        static Operation pick(int roll) {
+            for (Operation operation : values()) {
+                roll -= operation.weight;
+                if (roll < 0) {
+                    return operation;
+                }
+            }
+            return LIST;
+        }
+    }
+
+    /**
+     * One client thread. Rows are private to the worker (id to version), so updates and
+     * deletes never race with another worker and every non-2xx response is a failure.
+     */
+    private final class Worker {
+
+        private final Map<String, Map<Long, Long>> rows = new HashMap<>();
+        private final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        void run(long end) {
+            try {
+                for (String resource : RESOURCES) {
+                    rows.put(resource, new HashMap<>());
+                    for (int i = 0; i < SEED_ROWS; i++) {
+                        create(resource);
+                    }
+                }
+                while (System.nanoTime() < end) {
+                    String resource = RESOURCES.get(random.nextInt(RESOURCES.size()));
+                    Operation operation = Operation.pick(random.nextInt(100));
+                    Map<Long, Long> owned = rows.get(resource);
+                    if (owned.isEmpty() && operation != Operation.LIST) {
+                        operation = Operation.CREATE;
+                    }
+                    switch (operation) {
+                        case CREATE -> create(resource);
+                        case GET -> send(resource, Operation.GET, get(resource, "/" + anyId(owned)));
+                        case LIST -> send(resource, Operation.LIST, get(resource, "?size=20&sort=id,desc"));
+                        case UPDATE -> update(resource, anyId(owned));
+                        case DELETE -> delete(resource, anyId(owned));
+                    }
+                }
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void create(String resource) throws IOException, InterruptedException {
+            JsonNode row = send(resource, Operation.CREATE, request(resource, "").POST(body(payload(null))));
+            if (row != null) {
+                rows.get(resource).put(row.get("id").asLong(), row.get("version").asLong());
+            }
+        }
+
+        private void update(String resource, long id) throws IOException, InterruptedException {
+            Map<Long, Long> owned = rows.get(resource);
+            // Allop has no PATCH and no version check on PUT
+            HttpRequest.Builder request = resource.equals("allops")
+                    ? request(resource, "/" + id).PUT(body(payload(null)))
+                    : request(resource, "/" + id).method("PATCH", body(payload(owned.get(id))));
+            JsonNode row = send(resource, Operation.UPDATE, request);
+            if (row != null) {
+                owned.put(id, row.get("version").asLong());
+            }
+        }
+
+        private void delete(String resource, long id) throws IOException, InterruptedException {
+            send(resource, Operation.DELETE, request(resource, "/" + id).DELETE());
+            rows.get(resource).remove(id);
+        }
+
+        private HttpRequest.Builder get(String resource, String path) {
+            return request(resource, path).GET();
+        }
+
+        private HttpRequest.Builder request(String resource, String path) {
+            return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/" + resource + path))
+                    .header("Content-Type", "application/json");
+        }
+
+        private long anyId(Map<Long, Long> owned) {
+            int skip = random.nextInt(owned.size());
+            return owned.keySet().stream().skip(skip).findFirst().orElseThrow();
+        }
+
+        private String payload(Long version) {
+            int n = random.nextInt(1_000_000);
+            Map<String, Object> body = new HashMap<>();
+            if (version != null) {
+                body.put("version", version);
+            }
+            body.put("url", "https://example.com/load/" + n);
+            body.put("productName", "load-" + n);
+            body.put("boughtPrice", n % 1000);
+            body.put("sellPrice", n % 1000 + 10);
+            body.put("description", "load test row " + n);
+            return json.writeValueAsString(body);
+        }
+
+        private HttpRequest.BodyPublisher body(String payload) {
+            return HttpRequest.BodyPublishers.ofString(payload);
+        }
+
+        /**
+         * Sends the request and records its latency under {@code resource.operation}.
+         *
+         * @return the row from the response body (unwrapped from the envelope), or null
+         */
+        private JsonNode send(String resource, Operation operation, HttpRequest.Builder request)
+                throws IOException, InterruptedException {
+            HttpRequest built = request.build();
+            long start = System.nanoTime();
+            HttpResponse<String> response = http.send(built, HttpResponse.BodyHandlers.ofString());
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            if (recording) {
+                histograms.computeIfAbsent(resource + "." + operation.name().toLowerCase(),
+                        key -> new ConcurrentHistogram(3)).recordValue(micros);
+            }
+            if (response.statusCode() >= 300) {
+                errors.incrementAndGet();
+                log.warn("{} {} -> {} {}", built.method(), built.uri(), response.statusCode(), response.body());
+                return null;
+            }
+            if (response.body().isEmpty() || operation == Operation.GET || operation == Operation.LIST) {
+                return null;
+            }
+            JsonNode root = json.readTree(response.body());
+            return root.has("data") ? root.get("data") : root;
+        }
+    }
+}
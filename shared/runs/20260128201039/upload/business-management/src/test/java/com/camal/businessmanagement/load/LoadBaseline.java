@@ -0,0 +1,105 @@
+package com.camal.businessmanagement.load;
+
+import org.HdrHistogram.Histogram;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-endpoint latency percentiles and throughput of a load run, stored as JSON keyed by
+ * endpoint ({@code products.get}, {@code allops.update}, ...).
+ */
+final class LoadBaseline {
+
+    private static final ObjectMapper JSON = JsonMapper.builder()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .build();
+
+    private LoadBaseline() {
+        // Utility class
+    }
+
+    record Stats(double p50Ms, double p99Ms, double p999Ms, double throughput, long requests) {
+
+        /**
+         * @param histogram latencies in microseconds
+         * @param seconds   length of the measured window
+         */
+        static Stats of(Histogram histogram, double seconds) {
+            return new Stats(
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    Math.round(histogram.getTotalCount() / seconds * 10) / 10.0,
+                    histogram.getTotalCount());
+        }
+
+        private static double millis(long micros) {
+            return Math.round(micros / 10.0) / 100.0;
+        }
+    }
+
+    static Map<String, Stats> read(Path file) {
+        if (!Files.exists(file)) {
+            return Map.of();
+        }
+        return JSON.readValue(file.toFile(), new TypeReference<TreeMap<String, Stats>>() { });
+    }
+
+    static void write(Path file, Map<String, Stats> stats) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        JSON.writeValue(file.toFile(), new TreeMap<>(stats));
+    }
+
+    /**
+     * Compares a run with the baseline. A percentile regresses when it exceeds
+     * {@code baseline * tolerance + slackMs}; throughput regresses when it drops below
+     * {@code baseline / tolerance}. The slack keeps sub-millisecond percentiles from failing
+     * on scheduler noise. p99 and p999 are only checked once the endpoint has 100 and 1000
+     * samples (below that they are just the slowest request), and throughput once the
+     * baseline has 100, since the rarer operations are picked at random.
+     *
+     * @return one message per regressed figure, empty when the run is within bounds
+     */
+    static List<String> regressions(Map<String, Stats> baseline, Map<String, Stats> current,
+                                    double tolerance, double slackMs) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Stats> entry : new TreeMap<>(current).entrySet()) {
+            String endpoint = entry.getKey();
+            Stats now = entry.getValue();
+            Stats base = baseline.get(endpoint);
+            if (base == null) {
+                regressions.add(endpoint + ": no baseline");
+                continue;
+            }
+            checkLatency(regressions, endpoint, "p50", base.p50Ms(), now.p50Ms(), tolerance, slackMs);
+            if (now.requests() >= 100) {
+                checkLatency(regressions, endpoint, "p99", base.p99Ms(), now.p99Ms(), tolerance, slackMs);
+            }
+            if (now.requests() >= 1000) {
+                checkLatency(regressions, endpoint, "p999", base.p999Ms(), now.p999Ms(), tolerance, slackMs);
+            }
+            if (base.requests() >= 100 && now.throughput() < base.throughput() / tolerance) {
+                regressions.add("%s throughput: %.1f/s, baseline %.1f/s"
+                        .formatted(endpoint, now.throughput(), base.throughput()));
+            }
+        }
+        return regressions;
+    }
+
+    private static void checkLatency(List<String> regressions, String endpoint, String percentile,
+                                     double base, double now, double tolerance, double slackMs) {
+        if (now > base * tolerance + slackMs) {
+            regressions.add("%s %s: %.2f ms, baseline %.2f ms".formatted(endpoint, percentile, now, base));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.camal.businessmanagement.load;
+
+import com.camal.businessmanagement.BusinessManagementApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read traffic (get by id and list) from many concurrent clients against the application on
+ * platform threads and on the {@code virtual-threads} profile, reporting throughput and
+ * latency percentiles of each mode side by side in {@code build/reports/load/threading.json}.
+ * <p>
+ * Run with {@code gradle benchmark}. System properties: {@code benchmark.clients},
+ * {@code benchmark.warmupSeconds}, {@code benchmark.durationSeconds}. The difference shows
+ * with real database latency: pass {@code spring.datasource.*} for a local PostgreSQL.
+ */
+@Tag("benchmark")
+class ThreadingModeBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingModeBenchmarkIT.class);
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+    private static final long WARMUP_SECONDS = Long.getLong("benchmark.warmupSeconds", 10);
+    private static final long DURATION_SECONDS = Long.getLong("benchmark.durationSeconds", 30);
+    private static final int ROWS = 500;
+    private static final Path REPORT = Path.of("build/reports/load/threading.json");
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        Map<String, LoadBaseline.Stats> results = new LinkedHashMap<>();
+        results.put("platform", run("test"));
+        results.put("virtual", run("test,virtual-threads"));
+        results.forEach((mode, s) -> log.info("{}: {} req/s, p50 {} ms, p99 {} ms, p999 {} ms",
+                mode, s.throughput(), s.p50Ms(), s.p99Ms(), s.p999Ms()));
+        LoadBaseline.write(REPORT, results);
+    }
+
+    private LoadBaseline.Stats run(String profiles) throws Exception {
+        List<String> args = new ArrayList<>(List.of("--spring.profiles.active=" + profiles, "--server.port=0"));
+        if (System.getProperty("spring.datasource.url") == null) {
+            // A fresh in-memory database per mode
+            args.add("--spring.datasource.url=jdbc:h2:mem:threading-" + profiles.replace(',', '-')
+                    + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false");
+        }
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BusinessManagementApplication.class)
+                .run(args.toArray(String[]::new))) {
+            String base = "http://localhost:"
+                    + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/v1/products";
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < ROWS; i++) {
+                HttpResponse<Void> created = send(HttpRequest.newBuilder(URI.create(base))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("""
+                                {"productName": "p%d", "boughtPrice": 1.0, "sellPrice": 2.0}
+                                """.formatted(i)))
+                        .build());
+                String location = created.headers().firstValue("Location").orElseThrow();
+                ids.add(location.substring(location.lastIndexOf('/') + 1));
+            }
+
+            Histogram histogram = new ConcurrentHistogram(3);
+            AtomicLong failures = new AtomicLong();
+            long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+            long end = warmupEnd + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> running = new ArrayList<>();
+                for (int c = 0; c < CLIENTS; c++) {
+                    running.add(clients.submit(() -> {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        while (System.nanoTime() < end) {
+                            String path = random.nextBoolean()
+                                    ? "/" + ids.get(random.nextInt(ROWS))
+                                    : "?size=20&page=" + random.nextInt(ROWS / 20);
+                            long start = System.nanoTime();
+                            int status = send(HttpRequest.newBuilder(URI.create(base + path)).GET().build()).statusCode();
+                            long now = System.nanoTime();
+                            if (now >= warmupEnd) {
+                                histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(now - start));
+                                if (status != 200) {
+                                    failures.incrementAndGet();
+                                }
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> client : running) {
+                    client.get();
+                }
+            }
+            log.info("{}: {} failed requests", profiles, failures.get());
+            assertThat(failures.get()).as("failed requests (%s)", profiles).isZero();
+            return LoadBaseline.Stats.of(histogram, DURATION_SECONDS);
+        }
+    }
+
+    private HttpResponse<Void> send(HttpRequest request) {
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
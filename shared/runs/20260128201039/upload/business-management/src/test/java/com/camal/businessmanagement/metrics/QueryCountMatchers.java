@@ -0,0 +1,51 @@
+package com.camal.businessmanagement.metrics;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * MockMvc matchers on the {@code X-Query-Count} header, to pin how many JDBC statements an
+ * endpoint runs. Needs {@code app.query-stats.headers=true} (set in the test profile).
+ * <pre>
+ * mvc.perform(get("/api/v1/products/" + id))
+ *         .andExpect(queryCount(1));
+ * </pre>
+ */
+public final class QueryCountMatchers {
+
+    private QueryCountMatchers() {
+        // Utility class
+    }
+
+    public static ResultMatcher queryCount(int expected) {
+        return result -> {
+            int actual = actual(result);
+            if (actual != expected) {
+                throw new AssertionError("%s ran %d statements, expected %d".formatted(describe(result), actual, expected));
+            }
+        };
+    }
+
+    public static ResultMatcher queryCountAtMost(int max) {
+        return result -> {
+            int actual = actual(result);
+            if (actual > max) {
+                throw new AssertionError("%s ran %d statements, expected at most %d".formatted(describe(result), actual, max));
+            }
+        };
+    }
+
+    private static int actual(MvcResult result) {
+        String header = result.getResponse().getHeader(QueryStatsResponseAdvice.QUERY_COUNT);
+        if (header == null) {
+            throw new AssertionError(describe(result) + " has no " + QueryStatsResponseAdvice.QUERY_COUNT + " header");
+        }
+        return Integer.parseInt(header);
+    }
+
+    private static String describe(MvcResult result) {
+        MockHttpServletRequest request = result.getRequest();
+        return request.getMethod() + " " + request.getRequestURI();
+    }
+}
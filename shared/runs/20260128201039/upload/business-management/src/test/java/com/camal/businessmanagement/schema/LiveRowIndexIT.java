@@ -0,0 +1,81 @@
+package com.camal.businessmanagement.schema;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations on PostgreSQL and checks with EXPLAIN that the list query
+ * shapes use the {@code deleted = false} partial indexes. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LiveRowIndexIT {
+
+    private static final List<String> TABLES = List.of("products", "allops", "guards", "tests");
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        // Half of the rows soft-deleted, prices and timestamps spread out
+        for (String table : TABLES) {
+            jdbcTemplate.execute("""
+                    insert into %s (id, product_name, bought_price, sell_price, created_at, version, deleted)
+                    select g, 'p' || g, (g %% 1000) / 10.0, (g * 7 %% 1000) / 10.0,
+                           now() - g * interval '1 minute', 0, g %% 2 = 0
+                    from generate_series(1, 20000) g
+                    """.formatted(table));
+            jdbcTemplate.execute("analyze " + table);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"products", "allops", "guards", "tests"})
+    void defaultListUsesIdIndex(String table) {
+        assertThat(explain("select * from %s where deleted = false order by id offset 0 rows fetch first 20 rows only", table))
+                .contains(table + "_id_live_idx");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"products", "allops", "guards", "tests"})
+    void newestFirstUsesCreatedAtIndex(String table) {
+        assertThat(explain("select * from %s where deleted = false order by created_at desc offset 0 rows fetch first 20 rows only", table))
+                .contains(table + "_created_at_live_idx");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"products", "allops", "guards", "tests"})
+    void priceSortAndRangeUsePriceIndexes(String table) {
+        assertThat(explain("select * from %s where deleted = false order by bought_price offset 0 rows fetch first 20 rows only", table))
+                .contains(table + "_bought_price_live_idx");
+        assertThat(explain("select * from %s where deleted = false and sell_price >= 10 and sell_price <= 10.5 order by sell_price", table))
+                .contains(table + "_sell_price_live_idx");
+    }
+
+    private String explain(String sql, String table) {
+        return String.join("\n", jdbcTemplate.queryForList("explain " + sql.formatted(table), String.class));
+    }
+}
@@ -0,0 +1,114 @@
+package com.camal.businessmanagement.web;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compression is applied by the servlet container, so this runs against a real server.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ResponseCompressionIT {
+
+    @LocalServerPort private int port;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    /**
+     * Test contexts share the H2 database, whose ids restart when a context recreates the schema,
+     * and the JVM-wide entity cache, which may still hold another context's rows under those ids.
+     */
+    @BeforeEach
+    void clearEntityCache() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void largeResponsesAreGzipped() throws Exception {
+        String description = "long description ".repeat(250);
+        HttpResponse<String> created = http.send(HttpRequest.newBuilder(uri("/api/v1/products"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("""
+                                {"productName": "z", "boughtPrice": 1.0, "sellPrice": 2.0, "description": "%s"}
+                                """.formatted(description)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(created.statusCode()).isEqualTo(201);
+        String location = created.headers().firstValue("Location").orElseThrow();
+
+        // 1) Large body, client accepts gzip -> compressed, ETag still usable for revalidation
+        HttpResponse<InputStream> gzipped = http.send(HttpRequest.newBuilder(uri(location))
+                        .header("Accept-Encoding", "gzip")
+                        .build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(gzipped.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        String body;
+        try (InputStream in = new GZIPInputStream(gzipped.body())) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertThat(body).contains(description.trim());
+        // Tomcat only compresses responses without a strong tag
+        String etag = gzipped.headers().firstValue("ETag").orElseThrow();
+        assertThat(etag).startsWith("W/\"");
+        HttpResponse<String> revalidated = http.send(HttpRequest.newBuilder(uri(location))
+                        .header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", etag)
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(revalidated.statusCode()).isEqualTo(304);
+
+        // 2) Without Accept-Encoding, or below the size threshold -> identity
+        HttpResponse<String> plain = http.send(HttpRequest.newBuilder(uri(location)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(plain.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(plain.headers().firstValue("ETag")).hasValue(etag.substring(2));
+        HttpResponse<String> small = http.send(HttpRequest.newBuilder(uri("/api/v1/products/999999"))
+                        .header("Accept-Encoding", "gzip")
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(small.headers().firstValue("Content-Encoding")).isEmpty();
+
+        // 3) Streamed exports still stream (and compress)
+        HttpResponse<InputStream> export = http.send(HttpRequest.newBuilder(uri("/api/v1/products/export?productName=z"))
+                        .header("Accept-Encoding", "gzip")
+                        .build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(export.statusCode()).isEqualTo(200);
+        assertThat(export.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        try (InputStream in = new GZIPInputStream(export.body())) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).contains("\"productName\":\"z\"");
+        }
+
+        // 4) The weak tag of a gzipped response still works as a write precondition
+        HttpResponse<String> written = http.send(HttpRequest.newBuilder(uri(location))
+                        .header("Content-Type", "application/json")
+                        .header("If-Match", etag)
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString("""
+                                {"productName": "z2"}
+                                """))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(written.statusCode()).isEqualTo(200);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}